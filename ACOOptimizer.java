@@ -2,22 +2,168 @@ package raj.cbm.aco;
 
 import raj.cbm.core.ExperimentParams;
 import raj.cbm.core.Plan;
+import raj.cbm.eval.ConvergenceMonitor;
+import raj.cbm.eval.Pareto;
+import raj.cbm.eval.ParetoArchive;
 import raj.cbm.eval.SLAEvaluator;
+import raj.cbm.opt.Evaluator;
+import raj.cbm.opt.Optimizer;
+import raj.cbm.opt.OptimizerResult;
 
-/** Minimal scaffold for ACO. */
-public class ACOOptimizer {
-    public static class Result {
-        public final SLAEvaluator.Metrics metrics; public final Plan plan;
-        public Result(SLAEvaluator.Metrics m, Plan p) { metrics = m; plan = p; }
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-objective ant colony optimizer over class→VM assignment, per-VM cap levels
+ * and (with ep.searchPlacement under the "bfd" policy) per-VM host placement.
+ *
+ * Pheromones live in one flat double[]:
+ *   [0, C*V)                  tau for "class c runs on VM v"   at c*V + v
+ *   [C*V, C*V + V*L)          tau for "VM v gets cap level l"  at C*V + v*L + l
+ *   [C*V + V*L, .. + V*P)     tau for "VM v placed on option p" (p = 0 auto, p = h+1 host h)
+ * Each iteration the ants build their paths in parallel on a fork-join pool, each
+ * with its own SplittableRandom stream split from the seeded root (so results do
+ * not depend on thread scheduling). Paths are evaluated as one batch through the
+ * shared Evaluator (duplicates and previously seen plans hit its cache), then the
+ * iteration's non-dominated ants deposit pheromone through a single parallel
+ * collect into a fresh delta array.
+ */
+public class ACOOptimizer implements Optimizer {
+
+    private static final double TAU0 = 1.0, TAU_MIN = 0.01, TAU_MAX = 10.0;
+
+    @Override
+    public String name() { return "ACO"; }
+
+    @Override
+    public OptimizerResult run(ExperimentParams ep, Evaluator ev, ParetoArchive archive) {
+        long t0 = System.nanoTime();
+        final int C = Plan.CLASS_COUNT, V = Plan.VM_COUNT;
+        final int L = Math.max(2, ep.acoCapLevels);
+        final int ants = Math.max(1, ep.acoAnts);
+        final double alpha = ep.acoAlpha > 0 ? ep.acoAlpha : 1.0;
+        final double rho = (ep.acoRho > 0 && ep.acoRho < 1) ? ep.acoRho : 0.1;
+        final double minCap = (ep.acoMinCap > 0 && ep.acoMinCap < 1) ? ep.acoMinCap : 0.1;
+        // Pins only matter to the bfd policy; VmAllocationPolicySimple ignores them.
+        final boolean pins = ep.searchPlacement && ExperimentParams.VM_ALLOC_BFD.equals(ep.vmAllocation);
+        final int P = pins ? (ep.hostCount > 0 ? ep.hostCount : 2) + 1 : 0;
+        final int n = C * V + V * L + V * P;
+
+        final double[] tau = new double[n];
+        Arrays.fill(tau, TAU0);
+
+        int threads = ep.acoThreads > 0 ? ep.acoThreads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SplittableRandom root = new SplittableRandom(ep.seed + 4);
+        ConvergenceMonitor monitor = ConvergenceMonitor.forParams(name(), ep);
+
+        try {
+            for (int iter = 0; ; iter++) {
+                // 1) Parallel construction; streams are split up front for reproducibility.
+                final SplittableRandom[] streams = new SplittableRandom[ants];
+                for (int k = 0; k < ants; k++) streams[k] = root.split();
+                final int[][] paths = new int[ants][];
+                final double[] snapshot = tau.clone();
+                pool.submit(() -> IntStream.range(0, ants).parallel()
+                        .forEach(k -> paths[k] = construct(snapshot, streams[k], C, V, L, P, alpha))).get();
+
+                // 2) Batch evaluation (CloudSim runs are serialized; cached plans are not re-simulated).
+                List<Plan> plans = new ArrayList<Plan>(ants);
+                for (int k = 0; k < ants; k++) plans.add(toPlan(paths[k], C, V, L, P, minCap));
+                List<SLAEvaluator.Metrics> ms = ev.evaluateAll(plans);
+                final double[][] obj = new double[ants][];
+                for (int k = 0; k < ants; k++) {
+                    obj[k] = ms.get(k).objectives();
+                    archive.add(plans.get(k), ms.get(k));
+                }
+
+                // 3) Evaporation + deposit from the iteration's non-dominated ants, as one reduction.
+                final boolean[] nd = nonDominatedMask(obj);
+                int ndCount = 0;
+                for (boolean b : nd) if (b) ndCount++;
+                final double q = 1.0 / Math.max(1, ndCount);
+                double[] delta = pool.submit(() -> IntStream.range(0, ants).parallel()
+                        .filter(k -> nd[k])
+                        .collect(() -> new double[n],
+                                 (acc, k) -> deposit(acc, paths[k], q, C, V, L, P),
+                                 ACOOptimizer::addInto)).get();
+                for (int i = 0; i < n; i++) {
+                    double t = (1.0 - rho) * tau[i] + delta[i];
+                    tau[i] = t < TAU_MIN ? TAU_MIN : (t > TAU_MAX ? TAU_MAX : t);
+                }
+
+                if (monitor.record(iter, archive.objectives(), ev.evaluations()) || ev.exhausted()) break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        return OptimizerResult.of(name(), archive, ev, t0);
+    }
+
+    /** Path layout: [0, C) VM per class, [C, C+V) cap level per VM, [C+V, C+2V) placement per VM if P > 0. */
+    private static int[] construct(double[] tau, SplittableRandom rnd, int C, int V, int L, int P, double alpha) {
+        int[] path = new int[C + V + (P > 0 ? V : 0)];
+        for (int c = 0; c < C; c++) path[c] = roulette(tau, c * V, V, rnd, alpha);
+        int base = C * V;
+        for (int v = 0; v < V; v++) path[C + v] = roulette(tau, base + v * L, L, rnd, alpha);
+        base += V * L;
+        for (int v = 0; v < V && P > 0; v++) path[C + V + v] = roulette(tau, base + v * P, P, rnd, alpha);
+        return path;
+    }
+
+    private static int roulette(double[] tau, int off, int len, SplittableRandom rnd, double alpha) {
+        double sum = 0.0;
+        for (int i = 0; i < len; i++) sum += weight(tau[off + i], alpha);
+        double r = rnd.nextDouble() * sum;
+        for (int i = 0; i < len; i++) {
+            r -= weight(tau[off + i], alpha);
+            if (r <= 0) return i;
+        }
+        return len - 1;
+    }
+
+    private static double weight(double t, double alpha) { return alpha == 1.0 ? t : Math.pow(t, alpha); }
+
+    private static void deposit(double[] acc, int[] path, double q, int C, int V, int L, int P) {
+        for (int c = 0; c < C; c++) acc[c * V + path[c]] += q;
+        int base = C * V;
+        for (int v = 0; v < V; v++) acc[base + v * L + path[C + v]] += q;
+        base += V * L;
+        for (int v = 0; v < V && P > 0; v++) acc[base + v * P + path[C + V + v]] += q;
+    }
+
+    private static void addInto(double[] a, double[] b) {
+        for (int i = 0; i < a.length; i++) a[i] += b[i];
+    }
+
+    private static Plan toPlan(int[] path, int C, int V, int L, int P, double minCap) {
+        Plan p = new Plan();
+        for (int c = 0; c < C; c++) p.setClassVm(c, path[c]);
+        for (int v = 0; v < V; v++) p.setVmCap(v, minCap + (1.0 - minCap) * path[C + v] / (L - 1));
+        for (int v = 0; v < V && P > 0; v++) p.setVmHost(v, path[C + V + v] - 1);
+        return p;
     }
 
-    public Result run(ExperimentParams ep) {
-        Plan plan = new Plan();
-        plan.setVmCap(0, 0.90);
-        plan.setVmCap(1, 0.55);
-        plan.setVmCap(2, 0.50);
-        plan.setVmCap(3, 0.25);
-        SLAEvaluator.Metrics m = SLAEvaluator.evaluate(ep, plan);
-        return new Result(m, plan);
+    private static boolean[] nonDominatedMask(double[][] obj) {
+        boolean[] nd = new boolean[obj.length];
+        for (int i = 0; i < obj.length; i++) {
+            nd[i] = true;
+            for (int j = 0; j < obj.length && nd[i]; j++) {
+                if (j == i) continue;
+                // Equal vectors: only the first copy deposits.
+                if (Pareto.dominates(obj[j], obj[i]) || (j < i && Arrays.equals(obj[j], obj[i]))) nd[i] = false;
+            }
+        }
+        return nd;
     }
 }
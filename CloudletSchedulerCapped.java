@@ -0,0 +1,63 @@
+package raj.cbm.eval;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.ResCloudlet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simple capped scheduler: scales MIPS shares by cap in [0..1].
+ * The cap can also be changed while the simulation runs (online re-planning):
+ * setCap(cap, at) keeps it pending until the VM's next processing update, which
+ * credits the span up to `at` at the old cap and only the rest at the new one.
+ * (CloudletSchedulerTimeShared credits the whole span since the previous update
+ * with the shares it is given, so switching eagerly would apply the new cap backwards.)
+ */
+public final class CloudletSchedulerCapped extends CloudletSchedulerTimeShared {
+    private double cap;
+    private double pendingCap;
+    private double pendingAt = -1.0;   // simulation time the pending cap starts at, < 0 = none
+
+    public CloudletSchedulerCapped(double cap) { this.cap = clamp01(cap); }
+
+    /** The latest cap set, including one still pending. */
+    public double getCap() { return pendingAt >= 0 ? pendingCap : cap; }
+
+    /** Sets the cap for the whole run (before it starts). */
+    public void setCap(double cap) { this.cap = clamp01(cap); this.pendingAt = -1.0; }
+
+    /** Switches to cap from simulation time at on; work done before at is still credited at the old cap. */
+    public void setCap(double cap, double at) { this.pendingCap = clamp01(cap); this.pendingAt = Math.max(0.0, at); }
+
+    @Override
+    public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+        if (pendingAt >= 0 && currentTime >= pendingAt) {
+            // Close the old-cap span at the switch time, then continue from there at the new cap.
+            super.updateVmProcessing(Math.max(pendingAt, getPreviousTime()), scaled(mipsShare, cap));
+            cap = pendingCap;
+            pendingAt = -1.0;
+        }
+        return super.updateVmProcessing(currentTime, scaled(mipsShare, cap));
+    }
+
+    private static List<Double> scaled(List<Double> mipsShare, double c) {
+        if (mipsShare == null || mipsShare.isEmpty()) return mipsShare;
+        List<Double> out = new ArrayList<Double>(mipsShare.size());
+        for (Double m : mipsShare) out.add((m == null ? 0.0 : m) * c);
+        return out;
+    }
+
+    /** Appends {cloudletId, remaining MI, exec start time} for every cloudlet running or waiting on this VM. */
+    void collectBacklog(List<double[]> out) {
+        for (ResCloudlet rc : getCloudletExecList()) out.add(backlogEntry(rc));
+        for (ResCloudlet rc : getCloudletWaitingList()) out.add(backlogEntry(rc));
+    }
+
+    private static double[] backlogEntry(ResCloudlet rc) {
+        return new double[]{rc.getCloudlet().getCloudletId(), rc.getRemainingCloudletLength(),
+                            rc.getCloudlet().getExecStartTime()};
+    }
+
+    private static double clamp01(double x) { return x < 0 ? 0 : (x > 1 ? 1 : x); }
+}
@@ -0,0 +1,208 @@
+package raj.cbm.eval;
+
+import raj.cbm.core.ExperimentParams;
+import raj.cbm.util.CsvUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Per-generation hypervolume tracking and stop-when-converged criterion.
+ * Usage from an optimizer loop:
+ *   ConvergenceMonitor mon = ConvergenceMonitor.forParams("ACO", ep);
+ *   for (int gen = 0; ; gen++) { ...; if (mon.record(gen, front, evals)) break; }
+ *
+ * Objectives are normalised to the observed bounds padded by 10% of the range on
+ * both sides (the worst side is the reference point). When a front leaves the box
+ * (e.g. an objective that was constant, often 0, starts to vary) the bounds are
+ * widened, the bounds epoch goes up, and every earlier generation is re-measured
+ * under the new bounds, so the stall test and the history compare like with like.
+ * The CSV log re-emits those generations with remeasured=1: the rows of the highest
+ * bounds_epoch per algo/seed form one convergence curve.
+ * The archive HV is updated incrementally from the diff between consecutive fronts,
+ * and recomputed whenever a Monte-Carlo exclusive volume made it approximate.
+ */
+public final class ConvergenceMonitor {
+
+    public static final String HEADER = "algo,seed,generation,evaluations,front_size,hv,bounds_epoch,remeasured";
+
+    private final String algo;
+    private final int seed;
+    private final double epsilon;
+    private final int patience;
+    private final int maxGenerations;
+    private final int exactMaxPoints;
+    private final int samples;
+    private File csv;
+
+    private double[] lo, span;
+    private double[] seenLo, seenHi;                 // raw objective extremes seen so far
+    private final List<List<double[]>> fronts = new ArrayList<List<double[]>>(); // recorded fronts (raw)
+    private final List<int[]> recorded = new ArrayList<int[]>();       // {generation, evaluations} per front
+    private int epoch = 0;
+    private IncrementalHypervolume hv;
+    private final List<Double> history = new ArrayList<Double>();
+    private double best = 0.0;
+    private int stall = 0;
+    private boolean converged = false;
+
+    public ConvergenceMonitor(String algo, int seed, double epsilon, int patience, int maxGenerations,
+                              int exactMaxPoints, int samples) {
+        this.algo = algo;
+        this.seed = seed;
+        this.epsilon = epsilon > 0 ? epsilon : 0.0;
+        this.patience = patience > 0 ? patience : Integer.MAX_VALUE;
+        this.maxGenerations = maxGenerations > 0 ? maxGenerations : Integer.MAX_VALUE;
+        this.exactMaxPoints = exactMaxPoints > 0 ? exactMaxPoints : 32;
+        this.samples = samples > 0 ? samples : 20_000;
+    }
+
+    /** Monitor configured from the GUI/experiment knobs, logging to ep.hvLogCsv if set. */
+    public static ConvergenceMonitor forParams(String algo, ExperimentParams ep) {
+        ConvergenceMonitor m = new ConvergenceMonitor(algo, ep.seed, ep.hvEpsilon, ep.hvPatience,
+                ep.maxGenerations, ep.hvExactMaxPoints, ep.hvMcSamples);
+        if (ep.hvLogCsv != null && !ep.hvLogCsv.trim().isEmpty()) m.logTo(new File(ep.hvLogCsv.trim()));
+        return m;
+    }
+
+    public ConvergenceMonitor logTo(File f) {
+        this.csv = f == null ? null : f.getAbsoluteFile();
+        return this;
+    }
+
+    /**
+     * Records the current front (objective vectors, minimised) for this generation.
+     * @return true when the optimizer should stop (stalled for patience generations or max reached)
+     */
+    public boolean record(int generation, List<double[]> front, int evaluations) {
+        if (front == null) front = Collections.emptyList();
+        if (!front.isEmpty() && (hv == null || !insideBox(front))) rebase(front);
+
+        double v = 0.0;
+        if (hv != null) {
+            List<double[]> next = new ArrayList<double[]>(front.size());
+            for (double[] p : front) next.add(normalise(p));
+            v = update(next);
+        }
+        fronts.add(new ArrayList<double[]>(front));
+        recorded.add(new int[]{generation, evaluations});
+        history.add(v);
+
+        if (v - best > epsilon * Math.max(Math.abs(best), 1e-12)) { best = v; stall = 0; }
+        else stall++;
+        converged = stall >= patience || generation + 1 >= maxGenerations;
+
+        log(generation, evaluations, front.size(), v, false);
+        return converged;
+    }
+
+    public double last() { return history.isEmpty() ? 0.0 : history.get(history.size() - 1); }
+    public double best() { return best; }
+    public boolean converged() { return converged; }
+    public List<Double> history() { return Collections.unmodifiableList(history); }
+
+    private boolean insideBox(List<double[]> front) {
+        for (double[] p : front) {
+            for (int i = 0; i < p.length; i++) {
+                if (p[i] < lo[i] || p[i] >= lo[i] + span[i]) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Widens the bounds to cover front and re-measures the recorded history under them. */
+    private void rebase(List<double[]> front) {
+        int d = front.get(0).length;
+        if (seenLo == null) {
+            seenLo = new double[d]; seenHi = new double[d];
+            Arrays.fill(seenLo, Double.POSITIVE_INFINITY);
+            Arrays.fill(seenHi, Double.NEGATIVE_INFINITY);
+        }
+        for (double[] p : front) {
+            for (int i = 0; i < d; i++) { seenLo[i] = Math.min(seenLo[i], p[i]); seenHi[i] = Math.max(seenHi[i], p[i]); }
+        }
+        lo = new double[d];
+        span = new double[d];
+        for (int i = 0; i < d; i++) {
+            double range = seenHi[i] - seenLo[i];
+            // Constant so far: any small box will do, a later front outside it rebases again.
+            if (!(range > 0)) range = Math.max(1e-3, Math.abs(seenHi[i]) * 0.1);
+            lo[i] = seenLo[i] - 0.1 * range;
+            span[i] = (seenHi[i] + 0.1 * range) - lo[i]; // reference point maps to 1.0
+        }
+        double[] ref = new double[d];
+        Arrays.fill(ref, 1.0);
+        hv = new IncrementalHypervolume(ref, exactMaxPoints, samples, seed);
+        if (fronts.isEmpty()) return;
+
+        epoch++;
+        best = 0.0;
+        for (int k = 0; k < fronts.size(); k++) {
+            List<double[]> pts = new ArrayList<double[]>(fronts.get(k).size());
+            for (double[] p : fronts.get(k)) pts.add(normalise(p));
+            // The last front seeds the tracked archive; older ones are measured the same way (same seed).
+            double v = k == fronts.size() - 1 ? hv.reset(pts)
+                     : Hypervolume.compute(pts, ref, exactMaxPoints, samples * 4, seed);
+            history.set(k, v);
+            best = Math.max(best, v);
+            log(recorded.get(k)[0], recorded.get(k)[1], pts.size(), v, true);
+        }
+    }
+
+    /**
+     * Moves the tracked archive to next (normalised) and returns its HV. Small diffs on
+     * small fronts go through exact exclusive volumes; anything that would need
+     * Monte-Carlo exclusives (and hence a recompute anyway) is rebuilt in bulk.
+     */
+    private double update(List<double[]> next) {
+        Set<Key> wanted = new HashSet<Key>(next.size() * 2);
+        for (double[] q : next) wanted.add(new Key(q));
+        Set<Key> have = new HashSet<Key>(hv.size() * 2);
+        List<double[]> gone = new ArrayList<double[]>();
+        for (double[] q : hv.points()) {
+            Key k = new Key(q);
+            have.add(k);
+            if (!wanted.contains(k)) gone.add(q);
+        }
+        List<double[]> arrived = new ArrayList<double[]>();
+        for (double[] q : next) if (!have.contains(new Key(q))) arrived.add(q);
+
+        if (gone.isEmpty() && arrived.isEmpty()) return hv.value();
+        if (next.size() > exactMaxPoints || gone.size() + arrived.size() > exactMaxPoints) return hv.reset(next);
+        for (double[] q : gone) hv.remove(q);
+        for (double[] q : arrived) hv.add(q);
+        // Accumulated MC error can exceed epsilon and fake progress or stalls.
+        return hv.approximate() ? hv.recompute() : hv.value();
+    }
+
+    /** Value-equality wrapper so front diffs are hash lookups instead of O(N^2) scans. */
+    private static final class Key {
+        final double[] p;
+        final int hash;
+        Key(double[] p) { this.p = p; this.hash = Arrays.hashCode(p); }
+        @Override public int hashCode() { return hash; }
+        @Override public boolean equals(Object o) { return o instanceof Key && Arrays.equals(p, ((Key) o).p); }
+    }
+
+    private double[] normalise(double[] p) {
+        double[] q = new double[p.length];
+        for (int i = 0; i < p.length; i++) q[i] = (p[i] - lo[i]) / span[i];
+        return q;
+    }
+
+    private void log(int generation, int evaluations, int size, double v, boolean remeasured) {
+        if (csv == null) return;
+        try {
+            CsvUtils.appendWithHeader(csv, HEADER, String.format(Locale.US, "%s,%d,%d,%d,%d,%.6f,%d,%d",
+                    algo, seed, generation, evaluations, size, v, epoch, remeasured ? 1 : 0));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
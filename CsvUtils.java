@@ -1,15 +1,64 @@
 package raj.cbm.util;
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
-/** Tiny CSV append helper (UTF-8) compatible with Java 8. */
+/**
+ * Tiny CSV append helper (UTF-8) compatible with Java 8.
+ * All methods lock CsvUtils.class, which is shared by every simulator class loader,
+ * so writers from parallel simulations and optimizers never interleave a header check.
+ */
 public final class CsvUtils {
     private CsvUtils(){}
 
+    private static final Map<File, String> checked = new HashMap<File, String>(); // file -> header verified
+
+    /**
+     * Makes f start with header: writes it if f is missing or empty; if f starts with a
+     * different header (older column layout), renames f to name.old-N.csv and starts a new file.
+     */
+    public static synchronized void ensureHeader(File f, String header) throws Exception {
+        f = f.getAbsoluteFile();
+        if (f.exists() && f.length() > 0) {
+            if (header.equals(checked.get(f))) return;
+            String first;
+            try (BufferedReader br = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
+                first = br.readLine();
+            }
+            if (header.equals(first)) { checked.put(f, header); return; }
+            File old = rotated(f);
+            if (!f.renameTo(old)) throw new IOException("cannot rotate " + f + " to " + old);
+        }
+        appendLine(f, header);
+        checked.put(f, header);
+    }
+
+    /** ensureHeader + appendLine as one step. */
+    public static synchronized void appendWithHeader(File f, String header, String row) throws Exception {
+        ensureHeader(f, header);
+        appendLine(f, row);
+    }
+
+    private static File rotated(File f) {
+        String name = f.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name, ext = dot > 0 ? name.substring(dot) : "";
+        for (int n = 1; ; n++) {
+            File old = new File(f.getParentFile(), base + ".old-" + n + ext);
+            if (!old.exists()) return old;
+        }
+    }
+
     public static synchronized void appendLine(File f, String line) throws Exception {
         File parent = f.getAbsoluteFile().getParentFile();
         if (parent != null && !parent.exists()) parent.mkdirs();
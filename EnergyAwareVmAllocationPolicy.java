@@ -0,0 +1,105 @@
+package raj.cbm.eval;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Energy-aware consolidation: best-fit placement on free MIPS.
+ * - Hosts are indexed in a TreeSet keyed by (freeMips, hostIndex), so the tightest host
+ *   that still fits is one ceiling() lookup, O(log H), instead of a linear scan.
+ * - Best fit fills already-active hosts first and only opens an empty one when nothing
+ *   else fits; PowerDatacenter charges no energy for hosts that stay at 0% utilisation,
+ *   so fewer active hosts means less energy.
+ * - Combined with SLAEvaluator submitting VMs largest-first this is best-fit-decreasing.
+ * - Per-VM host pins (from Plan.getVmHost) are honoured when the host can take the VM.
+ * A host that fits on MIPS but not on RAM/BW is skipped to the next bucket.
+ */
+public final class EnergyAwareVmAllocationPolicy extends VmAllocationPolicy {
+
+    private final List<Host> hosts;
+    private final Map<Host, Integer> indexOf = new IdentityHashMap<Host, Integer>();
+    private final long stride;                             // > any host index
+    private final TreeSet<Long> byFree = new TreeSet<Long>(); // freeMips * stride + hostIndex
+    private final long[] keyOf;
+    private final int[] pins;                              // vm id -> host index, -1 = auto
+    private final Map<String, Host> vmTable = new HashMap<String, Host>();
+
+    public EnergyAwareVmAllocationPolicy(List<? extends Host> list, int[] vmHostPins) {
+        super(list);
+        hosts = new ArrayList<Host>(list);
+        stride = hosts.size() + 1L;
+        keyOf = new long[hosts.size()];
+        pins = vmHostPins == null ? new int[0] : vmHostPins.clone();
+        for (int h = 0; h < hosts.size(); h++) {
+            indexOf.put(hosts.get(h), h);
+            keyOf[h] = key(h);
+            byFree.add(keyOf[h]);
+        }
+    }
+
+    @Override
+    public boolean allocateHostForVm(Vm vm) {
+        if (vmTable.containsKey(vm.getUid())) return false;
+        int id = vm.getId();
+        int pin = (id >= 0 && id < pins.length) ? pins[id] : -1;
+        if (pin >= 0 && pin < hosts.size() && place(vm, pin)) return true;
+
+        long demand = (long) Math.ceil(vm.getMips() * vm.getNumberOfPes());
+        for (Long k = byFree.ceiling(demand * stride); k != null; k = byFree.higher(k)) {
+            if (place(vm, (int) (k % stride))) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean allocateHostForVm(Vm vm, Host host) {
+        Integer h = indexOf.get(host);
+        return h != null && place(vm, h);
+    }
+
+    @Override
+    public List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList) {
+        return null; // static placement, no migrations
+    }
+
+    @Override
+    public void deallocateHostForVm(Vm vm) {
+        Host host = vmTable.remove(vm.getUid());
+        if (host == null) return;
+        host.vmDestroy(vm);
+        reindex(indexOf.get(host));
+    }
+
+    @Override
+    public Host getHost(Vm vm) { return vmTable.get(vm.getUid()); }
+
+    @Override
+    public Host getHost(int vmId, int userId) { return vmTable.get(Vm.getUid(userId, vmId)); }
+
+    private boolean place(Vm vm, int h) {
+        Host host = hosts.get(h);
+        if (!host.vmCreate(vm)) return false; // checks PEs, RAM, BW and storage
+        vmTable.put(vm.getUid(), host);
+        reindex(h);
+        return true;
+    }
+
+    private void reindex(int h) {
+        byFree.remove(keyOf[h]);
+        keyOf[h] = key(h);
+        byFree.add(keyOf[h]);
+    }
+
+    private long key(int h) {
+        long free = (long) Math.floor(Math.max(0.0, hosts.get(h).getAvailableMips()));
+        return free * stride + h;
+    }
+}
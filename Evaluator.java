@@ -0,0 +1,65 @@
+package raj.cbm.opt;
+
+import raj.cbm.core.Plan;
+import raj.cbm.eval.SLAEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * An optimizer's view of a shared {@link EvaluatorPool}. Not thread-safe on its own
+ * counters; use one per optimizer run. The budget is soft: optimizers check
+ * {@link #exhausted()} between generations, so a run may overshoot by one batch.
+ */
+public final class Evaluator {
+
+    private final EvaluatorPool pool;
+    private int evaluations;
+    private long evalNanos;
+
+    Evaluator(EvaluatorPool pool) { this.pool = pool; }
+
+    public SLAEvaluator.Metrics evaluate(Plan plan) {
+        boolean[] fresh = new boolean[1];
+        long t0 = System.nanoTime();
+        SLAEvaluator.Metrics m = pool.evaluate(plan, fresh);
+        evalNanos += System.nanoTime() - t0;
+        if (fresh[0]) evaluations++;
+        return m;
+    }
+
+    /**
+     * Evaluates plans in parallel on the pool's simulators; results are in plans order
+     * and repeated plans hit the shared cache.
+     */
+    public List<SLAEvaluator.Metrics> evaluateAll(List<Plan> plans) {
+        if (plans.size() <= 1) {
+            List<SLAEvaluator.Metrics> out = new ArrayList<SLAEvaluator.Metrics>(plans.size());
+            for (Plan p : plans) out.add(evaluate(p));
+            return out;
+        }
+        long t0 = System.nanoTime();
+        boolean[][] fresh = new boolean[plans.size()][1];
+        List<CompletableFuture<SLAEvaluator.Metrics>> futures =
+                new ArrayList<CompletableFuture<SLAEvaluator.Metrics>>(plans.size());
+        for (int i = 0; i < plans.size(); i++) futures.add(pool.evaluateAsync(plans.get(i), fresh[i]));
+        List<SLAEvaluator.Metrics> out = new ArrayList<SLAEvaluator.Metrics>(plans.size());
+        try {
+            for (CompletableFuture<SLAEvaluator.Metrics> f : futures) out.add(f.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        } finally {
+            evalNanos += System.nanoTime() - t0;
+        }
+        for (boolean[] f : fresh) if (f[0]) evaluations++;
+        return out;
+    }
+
+    /** Simulations triggered through this evaluator (cache hits excluded). */
+    public int evaluations() { return evaluations; }
+    public long evalMillis() { return evalNanos / 1_000_000L; }
+    public boolean exhausted() { return pool.exhausted(); }
+}
@@ -0,0 +1,135 @@
+package raj.cbm.opt;
+
+import raj.cbm.core.ExperimentParams;
+import raj.cbm.core.Plan;
+import raj.cbm.eval.IsolatedSimulator;
+import raj.cbm.eval.SLAEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Evaluation state shared by concurrently running optimizers:
+ * - up to ep.simWorkers {@link IsolatedSimulator}s (0 = all cores), each with its own
+ *   copy of CloudSim's static state, so simulations from different optimizers and
+ *   from one optimizer's batch run in parallel; created lazily, reused across calls;
+ * - one memo cache keyed by {@link Plan#key()}, so a plan is simulated once per pool
+ *   even if several algorithms (or threads) ask for it at the same time;
+ * - one evaluation budget (ep.evaluationBudget, 0 = unlimited) counted in simulations.
+ * Close the pool to release the simulators' class loaders.
+ */
+public final class EvaluatorPool implements AutoCloseable {
+
+    private final ExperimentParams ep;
+    private final int budget;
+    private final int workers;
+    private final AtomicInteger used = new AtomicInteger();
+    private final ConcurrentHashMap<String, CompletableFuture<SLAEvaluator.Metrics>> cache =
+            new ConcurrentHashMap<String, CompletableFuture<SLAEvaluator.Metrics>>();
+    private final BlockingQueue<IsolatedSimulator> idle = new LinkedBlockingQueue<IsolatedSimulator>();
+    private final List<IsolatedSimulator> simulators = new ArrayList<IsolatedSimulator>();
+    private final ExecutorService batch = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "evaluator-batch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public EvaluatorPool(ExperimentParams ep) {
+        this.ep = ep;
+        this.budget = ep.evaluationBudget > 0 ? ep.evaluationBudget : 0;
+        this.workers = ep.simWorkers > 0 ? ep.simWorkers : Runtime.getRuntime().availableProcessors();
+    }
+
+    /** Per-optimizer handle that counts its own simulations and time. */
+    public Evaluator newEvaluator() { return new Evaluator(this); }
+
+    public int used() { return used.get(); }
+    public int budget() { return budget; }
+    public int workers() { return workers; }
+    public boolean exhausted() { return budget > 0 && used.get() >= budget; }
+
+    /** Returns the cached or freshly simulated metrics; fresh[0] is set when this call simulated. */
+    SLAEvaluator.Metrics evaluate(Plan plan, boolean[] fresh) {
+        String key = plan.key();
+        CompletableFuture<SLAEvaluator.Metrics> f = cache.get(key);
+        if (f == null) {
+            CompletableFuture<SLAEvaluator.Metrics> mine = new CompletableFuture<SLAEvaluator.Metrics>();
+            f = cache.putIfAbsent(key, mine);
+            if (f == null) {
+                used.incrementAndGet();
+                fresh[0] = true;
+                try {
+                    mine.complete(simulate(plan));
+                } catch (Throwable t) {
+                    // Errors too (LinkageError, OOM...): waiters on this key must not block forever.
+                    cache.remove(key, mine);
+                    mine.completeExceptionally(t);
+                    throw t;
+                }
+                return mine.join();
+            }
+        }
+        return f.join();
+    }
+
+    /**
+     * Re-simulates plan with online cap re-planning (ep.onlineMode reporting runs).
+     * Not cached and not counted against the budget.
+     */
+    public SLAEvaluator.Metrics replayOnline(String algo, Plan plan) {
+        IsolatedSimulator sim = acquire();
+        try {
+            return sim.replayOnline(ep, plan, algo);
+        } finally {
+            idle.add(sim);
+        }
+    }
+
+    /** Starts evaluate(plan, fresh) on the pool's batch threads. */
+    CompletableFuture<SLAEvaluator.Metrics> evaluateAsync(Plan plan, boolean[] fresh) {
+        return CompletableFuture.supplyAsync(() -> evaluate(plan, fresh), batch);
+    }
+
+    @Override
+    public void close() {
+        batch.shutdownNow();
+        synchronized (simulators) {
+            for (IsolatedSimulator s : simulators) s.close();
+            simulators.clear();
+        }
+    }
+
+    private SLAEvaluator.Metrics simulate(Plan plan) {
+        IsolatedSimulator sim = acquire();
+        try {
+            return sim.evaluate(ep, plan);
+        } finally {
+            idle.add(sim);
+        }
+    }
+
+    private IsolatedSimulator acquire() {
+        IsolatedSimulator sim = idle.poll();
+        if (sim != null) return sim;
+        synchronized (simulators) {
+            if (simulators.size() < workers) {
+                sim = IsolatedSimulator.create();
+                simulators.add(sim);
+                return sim;
+            }
+        }
+        try {
+            return idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a simulator", e);
+        }
+    }
+}
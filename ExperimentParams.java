@@ -16,6 +16,12 @@ public class ExperimentParams {
     public double hostIdleW     = 100.0; // idle Watts
     public double hostMaxW      = 250.0; // max Watts
 
+    // ---- VM placement ----
+    public static final String VM_ALLOC_SIMPLE = "simple"; // CloudSim VmAllocationPolicySimple (most free PEs)
+    public static final String VM_ALLOC_BFD    = "bfd";    // energy-aware best-fit-decreasing, honours Plan host pins
+    public String  vmAllocation    = VM_ALLOC_SIMPLE;
+    public boolean searchPlacement = false;  // let optimizers search Plan.setVmHost (needs "bfd")
+
     // ---- VMs ----
     public int   vmPes          = 1;
     public int   vmMips         = 2000;
@@ -38,6 +44,39 @@ public class ExperimentParams {
     public double p95MissThresholdMs = 50.0; // SLO threshold used for "miss%" metric
     public double schedulingInterval = 1.0;  // seconds (PowerDatacenter scheduling step)
 
+    // ---- Optimizer runs ----
+    public int    evaluationBudget = 0;      // simulations shared by all algorithms of one run (0 = unlimited)
+    public int    simWorkers       = 0;      // CloudSim copies simulating in parallel (0 = all cores)
+
+    // ---- Convergence tracking (hypervolume) ----
+    public int    maxGenerations   = 30;     // hard cap on optimizer generations
+    public double hvEpsilon        = 1e-3;   // relative HV gain below which a generation counts as stalled
+    public int    hvPatience       = 5;      // stop after this many stalled generations in a row
+    public int    hvExactMaxPoints = 32;     // above this front size, HV falls back to Monte-Carlo
+    public int    hvMcSamples      = 20_000; // Monte-Carlo samples per HV estimate
+    public String hvLogCsv         = "out/hv.csv"; // per-generation HV log ("" disables)
+
+    // ---- ACO ----
+    public int    acoAnts          = 16;     // ants per iteration (iterations = maxGenerations)
+    public int    acoCapLevels     = 10;     // discretized cap levels in [acoMinCap..1.0]
+    public double acoMinCap        = 0.10;
+    public double acoRho           = 0.10;   // pheromone evaporation rate
+    public double acoAlpha         = 1.0;    // pheromone exponent in the choice rule
+    public int    acoThreads       = 0;      // fork-join parallelism for ant construction (0 = all cores)
+
+    // ---- SPEA-II ----
+    public int    spea2Population  = 16;     // offspring per generation
+    public int    spea2ArchiveSize = 16;     // environmental-selection archive size
+
+    // ---- Online re-planning (rolling horizon inside one simulation) ----
+    public boolean onlineMode        = false; // replay each reported plan with caps re-optimized during the run
+    public double  replanIntervalSec = 5.0;   // simulated seconds between decisions
+    public int     decisionBudgetMs  = 20;    // wall-clock budget per decision
+    public int     onlineParticles   = 12;    // swarm size of the warm-started PSO
+    public int     onlineMaxIterations = 30;  // PSO updates per decision (also stops after 5 without gain)
+    public double  onlineMinCap      = 0.10;  // lowest cap a decision may set
+    public String  onlineLogCsv      = "out/online.csv"; // per-decision log ("" disables)
+
     // seed is used by the optimizers to vary caps/mappings
     public int seed = 42;
 
@@ -0,0 +1,159 @@
+package raj.cbm.eval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Hypervolume indicator for minimised objective vectors.
+ * - exact(): WFG algorithm (While, Bradstreet, Barone 2012) with a 2-D sweep base case.
+ * - estimate(): Monte-Carlo sampling inside the [ideal, ref] box, for large high-dimensional fronts.
+ * - exclusive*(): volume only p dominates, used for incremental archive updates.
+ * Points that do not strictly dominate the reference point contribute nothing.
+ */
+public final class Hypervolume {
+    private Hypervolume(){}
+
+    /** Exact HV when the front is small enough, Monte-Carlo estimate otherwise. */
+    public static double compute(List<double[]> pts, double[] ref, int exactMaxPoints, int samples, long seed) {
+        List<double[]> front = Pareto.nonDominated(inside(pts, ref));
+        if (front.size() <= exactMaxPoints || ref.length <= 2) return wfg(front, ref);
+        return estimateFront(front, ref, samples, new SplittableRandom(seed));
+    }
+
+    /** Exact hypervolume (WFG). */
+    public static double exact(List<double[]> pts, double[] ref) {
+        return wfg(Pareto.nonDominated(inside(pts, ref)), ref);
+    }
+
+    /** Monte-Carlo hypervolume estimate with the given number of samples. */
+    public static double estimate(List<double[]> pts, double[] ref, int samples, long seed) {
+        return estimateFront(Pareto.nonDominated(inside(pts, ref)), ref, samples, new SplittableRandom(seed));
+    }
+
+    /** Exact volume dominated by p but by none of others. */
+    public static double exclusiveExact(double[] p, List<double[]> others, double[] ref) {
+        if (!strictlyInside(p, ref)) return 0.0;
+        return inclusive(p, ref) - wfg(limitSet(p, others, ref), ref);
+    }
+
+    /** Monte-Carlo estimate of the volume dominated by p but by none of others. */
+    public static double exclusiveEstimate(double[] p, List<double[]> others, double[] ref,
+                                           int samples, SplittableRandom rnd) {
+        if (!strictlyInside(p, ref)) return 0.0;
+        return exclusiveEstimateLimited(p, limitSet(p, others, ref), ref, samples, rnd);
+    }
+
+    /** Exact exclusive volume of p given its precomputed limit set. */
+    static double exclusiveExactLimited(double[] p, List<double[]> lim, double[] ref) {
+        return inclusive(p, ref) - wfg(lim, ref);
+    }
+
+    /** Monte-Carlo exclusive volume of p given its precomputed limit set. */
+    static double exclusiveEstimateLimited(double[] p, List<double[]> lim, double[] ref,
+                                           int samples, SplittableRandom rnd) {
+        if (lim.isEmpty()) return inclusive(p, ref);
+        int d = p.length, free = 0;
+        double[] s = new double[d];
+        for (int k = 0; k < samples; k++) {
+            for (int i = 0; i < d; i++) s[i] = p[i] + rnd.nextDouble() * (ref[i] - p[i]);
+            if (!coveredBy(s, lim)) free++;
+        }
+        return inclusive(p, ref) * free / samples;
+    }
+
+    /** Others clipped to the box of p (component-wise max), reduced to their non-dominated subset. */
+    static List<double[]> limitSet(double[] p, List<double[]> others, double[] ref) {
+        List<double[]> lim = new ArrayList<double[]>(others.size());
+        for (double[] q : others) {
+            if (q == p) continue;
+            double[] r = new double[p.length];
+            for (int i = 0; i < p.length; i++) r[i] = Math.max(p[i], q[i]);
+            if (strictlyInside(r, ref)) lim.add(r);
+        }
+        return Pareto.nonDominated(lim);
+    }
+
+    // ---- WFG ----
+
+    private static double wfg(List<double[]> front, double[] ref) {
+        if (front.isEmpty()) return 0.0;
+        if (front.size() == 1) return inclusive(front.get(0), ref);
+        int d = ref.length;
+        if (d == 1) return ref[0] - min(front, 0);
+        if (d == 2) return sweep2d(front, ref);
+
+        // Worst-last-objective first keeps the limit sets of early points small.
+        List<double[]> pl = new ArrayList<double[]>(front);
+        pl.sort(Comparator.comparingDouble((double[] a) -> a[d - 1]).reversed());
+
+        double vol = 0.0;
+        for (int k = 0; k < pl.size(); k++) {
+            double[] p = pl.get(k);
+            List<double[]> lim = limitSet(p, pl.subList(k + 1, pl.size()), ref);
+            vol += inclusive(p, ref) - wfg(lim, ref);
+        }
+        return vol;
+    }
+
+    private static double sweep2d(List<double[]> front, double[] ref) {
+        double[][] a = front.toArray(new double[0][]);
+        Arrays.sort(a, Comparator.comparingDouble((double[] v) -> v[0]).thenComparingDouble(v -> v[1]));
+        double vol = 0.0, prevY = ref[1];
+        for (double[] p : a) {
+            if (p[1] >= prevY) continue;
+            vol += (ref[0] - p[0]) * (prevY - p[1]);
+            prevY = p[1];
+        }
+        return vol;
+    }
+
+    // ---- Monte-Carlo ----
+
+    private static double estimateFront(List<double[]> front, double[] ref, int samples, SplittableRandom rnd) {
+        if (front.isEmpty()) return 0.0;
+        int d = ref.length;
+        double[] lo = new double[d];
+        double box = 1.0;
+        for (int i = 0; i < d; i++) { lo[i] = min(front, i); box *= ref[i] - lo[i]; }
+        int hit = 0;
+        double[] s = new double[d];
+        for (int k = 0; k < samples; k++) {
+            for (int i = 0; i < d; i++) s[i] = lo[i] + rnd.nextDouble() * (ref[i] - lo[i]);
+            if (coveredBy(s, front)) hit++;
+        }
+        return box * hit / samples;
+    }
+
+    private static boolean coveredBy(double[] s, List<double[]> pts) {
+        for (double[] q : pts) if (Pareto.weaklyDominates(q, s)) return true;
+        return false;
+    }
+
+    // ---- helpers ----
+
+    static double inclusive(double[] p, double[] ref) {
+        double v = 1.0;
+        for (int i = 0; i < p.length; i++) v *= ref[i] - p[i];
+        return v;
+    }
+
+    static boolean strictlyInside(double[] p, double[] ref) {
+        for (int i = 0; i < p.length; i++) if (!(p[i] < ref[i])) return false;
+        return true;
+    }
+
+    private static List<double[]> inside(List<double[]> pts, double[] ref) {
+        List<double[]> out = new ArrayList<double[]>(pts.size());
+        for (double[] p : pts) if (strictlyInside(p, ref)) out.add(p);
+        return out;
+    }
+
+    private static double min(List<double[]> pts, int i) {
+        double m = Double.POSITIVE_INFINITY;
+        for (double[] p : pts) if (p[i] < m) m = p[i];
+        return m;
+    }
+}
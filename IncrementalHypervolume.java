@@ -0,0 +1,97 @@
+package raj.cbm.eval;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Hypervolume of a non-dominated archive, kept up to date as points enter and leave.
+ * Each add/remove only computes the exclusive contribution of that one point
+ * (HV(S + p) = HV(S) + excl(p, S)), instead of re-running HV over the whole front.
+ * Exclusive volumes are exact (WFG) while the clipped limit set is small and
+ * Monte-Carlo beyond that; {@link #approximate()} reports whether sampling noise has
+ * accumulated since the last {@link #recompute()}.
+ */
+public final class IncrementalHypervolume {
+
+    private final double[] ref;
+    private final int exactMaxPoints;
+    private final int samples;
+    private final SplittableRandom rnd;
+    private final long seed;
+    private final List<double[]> points = new ArrayList<double[]>();
+    private double value;
+    private boolean sampled;
+
+    public IncrementalHypervolume(double[] ref, int exactMaxPoints, int samples, long seed) {
+        this.ref = ref.clone();
+        this.exactMaxPoints = Math.max(1, exactMaxPoints);
+        this.samples = Math.max(1, samples);
+        this.rnd = new SplittableRandom(seed);
+        this.seed = seed;
+    }
+
+    /** Adds p if it is inside the reference box and not weakly dominated; drops points it dominates. */
+    public boolean add(double[] p) {
+        if (!Hypervolume.strictlyInside(p, ref)) return false;
+        for (double[] q : points) if (Pareto.weaklyDominates(q, p)) return false;
+        value += exclusive(p, points);
+        for (int i = points.size() - 1; i >= 0; i--) {
+            if (Pareto.dominates(p, points.get(i))) points.remove(i);
+        }
+        points.add(p);
+        return true;
+    }
+
+    /** Removes p (matched by value) and subtracts its exclusive contribution. */
+    public boolean remove(double[] p) {
+        int idx = Pareto.indexOf(points, p);
+        if (idx < 0) return false;
+        double[] gone = points.remove(idx);
+        value -= exclusive(gone, points);
+        if (points.isEmpty() || value < 0.0) value = 0.0;
+        return true;
+    }
+
+    /**
+     * Replaces the tracked points in bulk: keeps the non-dominated ones inside the
+     * reference box and computes HV once, instead of one exclusive volume per point.
+     */
+    public double reset(List<double[]> pts) {
+        points.clear();
+        List<double[]> inside = new ArrayList<double[]>(pts.size());
+        for (double[] p : pts) if (Hypervolume.strictlyInside(p, ref)) inside.add(p);
+        points.addAll(Pareto.nonDominated(inside));
+        return recompute();
+    }
+
+    /**
+     * Full recomputation over the current points; resets any Monte-Carlo drift.
+     * Sampling uses a fixed seed, so an unchanged archive re-estimates to the same value.
+     */
+    public double recompute() {
+        value = Hypervolume.compute(points, ref, exactMaxPoints, samples * 4, seed);
+        sampled = false;
+        return value;
+    }
+
+    /** True if an add/remove since the last recompute used a Monte-Carlo exclusive volume. */
+    public boolean approximate() { return sampled; }
+
+    public double value() { return value; }
+    public int size() { return points.size(); }
+    public List<double[]> points() { return Collections.unmodifiableList(points); }
+    public double[] reference() { return ref.clone(); }
+
+    private double exclusive(double[] p, List<double[]> others) {
+        if (!Hypervolume.strictlyInside(p, ref)) return 0.0;
+        // Clipping to p's box usually shrinks the set a lot, so decide exact vs MC on the clipped size.
+        List<double[]> lim = Hypervolume.limitSet(p, others, ref);
+        if (lim.size() <= exactMaxPoints || ref.length <= 2) {
+            return Hypervolume.exclusiveExactLimited(p, lim, ref);
+        }
+        sampled = true;
+        return Hypervolume.exclusiveEstimateLimited(p, lim, ref, samples, rnd);
+    }
+}
@@ -0,0 +1,136 @@
+package raj.cbm.eval;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import raj.cbm.core.ExperimentParams;
+import raj.cbm.core.Plan;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * One private copy of CloudSim, so simulations can run in parallel.
+ * CloudSim 3.0.3 keeps its simulation state in statics; a child-first class loader
+ * gives each instance its own copy of org.cloudbus.cloudsim.* and of the classes here
+ * that drive it (SLAEvaluator and friends), hence its own statics and its own
+ * SLAEvaluator lock. Everything else (ExperimentParams, Plan, Metrics, utilities)
+ * is delegated to the parent, so arguments and results cross without copying.
+ * If the loader cannot be built (no code source), falls back to the shared,
+ * serialized SLAEvaluator.
+ */
+public final class IsolatedSimulator implements AutoCloseable {
+
+    /** raj.cbm.eval classes that touch CloudSim; nested/lambda classes follow their outer class. */
+    private static final Set<String> DRIVERS = new HashSet<String>(Arrays.asList(
+            "raj.cbm.eval.SLAEvaluator",
+            "raj.cbm.eval.CloudletSchedulerCapped",
+            "raj.cbm.eval.EnergyAwareVmAllocationPolicy",
+            "raj.cbm.eval.OnlineController"));
+    private static final String SHARED_METRICS = "raj.cbm.eval.SLAEvaluator$Metrics";
+
+    private final URLClassLoader loader; // null = shared fallback
+    private final Method evaluate, replayOnline;
+
+    private IsolatedSimulator(URLClassLoader loader, Class<?> evaluator) throws NoSuchMethodException {
+        this.loader = loader;
+        this.evaluate = evaluator.getMethod("evaluate", ExperimentParams.class, Plan.class);
+        this.replayOnline = evaluator.getMethod("replayOnline", ExperimentParams.class, Plan.class, String.class);
+    }
+
+    /** A new isolated copy, or the shared simulator if isolation is not possible here. */
+    public static IsolatedSimulator create() {
+        URL[] urls = codeSources(CloudSim.class, SLAEvaluator.class);
+        if (urls == null) return shared();
+        URLClassLoader loader = new ChildFirstLoader(urls, IsolatedSimulator.class.getClassLoader());
+        try {
+            Class<?> c = Class.forName(SLAEvaluator.class.getName(), true, loader);
+            return new IsolatedSimulator(loader, c);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            closeQuietly(loader);
+            return shared();
+        }
+    }
+
+    private static IsolatedSimulator shared() {
+        try {
+            return new IsolatedSimulator(null, SLAEvaluator.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** False when this is the shared fallback (all such instances serialize on one lock). */
+    public boolean isolated() { return loader != null; }
+
+    /** SLAEvaluator.evaluate in this copy. */
+    public SLAEvaluator.Metrics evaluate(ExperimentParams ep, Plan plan) {
+        return invoke(evaluate, ep, plan);
+    }
+
+    /** SLAEvaluator.replayOnline in this copy. */
+    public SLAEvaluator.Metrics replayOnline(ExperimentParams ep, Plan plan, String algo) {
+        return invoke(replayOnline, ep, plan, algo);
+    }
+
+    private static SLAEvaluator.Metrics invoke(Method m, Object... args) {
+        try {
+            return (SLAEvaluator.Metrics) m.invoke(null, args);
+        } catch (InvocationTargetException e) {
+            Throwable t = e.getCause();
+            if (t instanceof RuntimeException) throw (RuntimeException) t;
+            if (t instanceof Error) throw (Error) t;
+            throw new RuntimeException(t);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() { if (loader != null) closeQuietly(loader); }
+
+    private static URL[] codeSources(Class<?>... classes) {
+        Set<URL> urls = new LinkedHashSet<URL>();
+        for (Class<?> c : classes) {
+            CodeSource cs = c.getProtectionDomain().getCodeSource();
+            if (cs == null || cs.getLocation() == null) return null;
+            urls.add(cs.getLocation());
+        }
+        return urls.toArray(new URL[0]);
+    }
+
+    private static void closeQuietly(URLClassLoader l) {
+        try { l.close(); } catch (IOException ignore) {}
+    }
+
+    /** Loads CloudSim and the DRIVERS itself; delegates everything else parent-first. */
+    private static final class ChildFirstLoader extends URLClassLoader {
+        static { registerAsParallelCapable(); }
+
+        ChildFirstLoader(URL[] urls, ClassLoader parent) { super(urls, parent); }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!isolated(name)) return super.loadClass(name, resolve);
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) c = findClass(name);
+                if (resolve) resolveClass(c);
+                return c;
+            }
+        }
+
+        private static boolean isolated(String name) {
+            if (name.startsWith("org.cloudbus.cloudsim.")) return true;
+            if (name.equals(SHARED_METRICS)) return false;
+            int nested = name.indexOf('$');
+            return DRIVERS.contains(nested < 0 ? name : name.substring(0, nested));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package raj.cbm.spea;
+
+/**
+ * Static k-d tree over a fixed set of points with O(log N) deletions, used for
+ * SPEA2's k-th nearest neighbour density and archive truncation.
+ *
+ * The tree is implicit: a node is a range [lo, hi) of the index permutation with its
+ * split point at mid = (lo + hi) / 2. Each node keeps the number of live points in
+ * its range, so removed points cost nothing in later queries once a subtree empties.
+ */
+final class KdTree {
+
+    private final double[][] pts;
+    private final int[] perm;      // position -> point index
+    private final int[] pos;       // point index -> position
+    private final int[] splitDim;  // by position of the node's split point
+    private final int[] alive;     // live points in the node's range, by position of its split point
+    private final boolean[] removed;
+
+    // Scratch max-heap for the current query (squared distances).
+    private double[] heapD = new double[0];
+    private int[] heapI = new int[0];
+    private int heapN, heapK;
+
+    KdTree(double[][] pts) {
+        this.pts = pts;
+        int n = pts.length;
+        perm = new int[n];
+        pos = new int[n];
+        splitDim = new int[n];
+        alive = new int[n];
+        removed = new boolean[n];
+        for (int i = 0; i < n; i++) perm[i] = i;
+        build(0, n);
+        for (int p = 0; p < n; p++) pos[perm[p]] = p;
+    }
+
+    boolean isRemoved(int i) { return removed[i]; }
+
+    /** Removes point i from all subsequent queries. */
+    void remove(int i) {
+        if (removed[i]) return;
+        removed[i] = true;
+        int target = pos[i], lo = 0, hi = perm.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            alive[mid]--;
+            if (target == mid) break;
+            if (target < mid) hi = mid; else lo = mid + 1;
+        }
+    }
+
+    /**
+     * k nearest live neighbours of point q (q itself excluded), nearest first.
+     * @return number of neighbours written to outIdx/outDist (Euclidean distances)
+     */
+    int knn(int q, int k, int[] outIdx, double[] outDist) {
+        if (k <= 0) return 0;
+        if (heapD.length < k) { heapD = new double[k]; heapI = new int[k]; }
+        heapN = 0;
+        heapK = k;
+        search(pts[q], q, 0, perm.length);
+        int n = heapN;
+        // Pop the max-heap from the back to get ascending order.
+        for (int j = n - 1; j >= 0; j--) {
+            outIdx[j] = heapI[0];
+            outDist[j] = Math.sqrt(heapD[0]);
+            heapN--;
+            heapD[0] = heapD[heapN];
+            heapI[0] = heapI[heapN];
+            siftDown(0);
+        }
+        return n;
+    }
+
+    private void build(int lo, int hi) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        int dim = widestDim(lo, hi);
+        select(lo, hi - 1, mid, dim);
+        splitDim[mid] = dim;
+        alive[mid] = hi - lo;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private int widestDim(int lo, int hi) {
+        int d = pts[perm[lo]].length, best = 0;
+        double bestSpread = -1;
+        for (int j = 0; j < d; j++) {
+            double mn = Double.POSITIVE_INFINITY, mx = Double.NEGATIVE_INFINITY;
+            for (int p = lo; p < hi; p++) {
+                double v = pts[perm[p]][j];
+                if (v < mn) mn = v;
+                if (v > mx) mx = v;
+            }
+            if (mx - mn > bestSpread) { bestSpread = mx - mn; best = j; }
+        }
+        return best;
+    }
+
+    /** Quickselect on perm[lo..hi] so perm[k] holds the k-th smallest along dim. */
+    private void select(int lo, int hi, int k, int dim) {
+        while (hi > lo) {
+            double pivot = pts[perm[(lo + hi) >>> 1]][dim];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (pts[perm[i]][dim] < pivot) i++;
+                while (pts[perm[j]][dim] > pivot) j--;
+                if (i <= j) { int t = perm[i]; perm[i] = perm[j]; perm[j] = t; i++; j--; }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    private void search(double[] x, int self, int lo, int hi) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (alive[mid] == 0) return;
+        int p = perm[mid];
+        if (!removed[p] && p != self) offer(p, dist2(x, pts[p]));
+        int dim = splitDim[mid];
+        double diff = x[dim] - pts[p][dim];
+        if (diff < 0) {
+            search(x, self, lo, mid);
+            if (heapN < heapK || diff * diff < heapD[0]) search(x, self, mid + 1, hi);
+        } else {
+            search(x, self, mid + 1, hi);
+            if (heapN < heapK || diff * diff < heapD[0]) search(x, self, lo, mid);
+        }
+    }
+
+    private void offer(int i, double d2) {
+        if (heapN < heapK) {
+            int c = heapN++;
+            heapD[c] = d2; heapI[c] = i;
+            while (c > 0) {
+                int parent = (c - 1) >>> 1;
+                if (heapD[parent] >= heapD[c]) break;
+                swap(parent, c);
+                c = parent;
+            }
+        } else if (d2 < heapD[0]) {
+            heapD[0] = d2; heapI[0] = i;
+            siftDown(0);
+        }
+    }
+
+    private void siftDown(int c) {
+        while (true) {
+            int l = 2 * c + 1, r = l + 1, m = c;
+            if (l < heapN && heapD[l] > heapD[m]) m = l;
+            if (r < heapN && heapD[r] > heapD[m]) m = r;
+            if (m == c) return;
+            swap(c, m);
+            c = m;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double td = heapD[a]; heapD[a] = heapD[b]; heapD[b] = td;
+        int ti = heapI[a]; heapI[a] = heapI[b]; heapI[b] = ti;
+    }
+
+    private static double dist2(double[] a, double[] b) {
+        double s = 0.0;
+        for (int i = 0; i < a.length; i++) { double t = a[i] - b[i]; s += t * t; }
+        return s;
+    }
+}
@@ -4,13 +4,12 @@ import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.data.category.DefaultCategoryDataset;
-import raj.cbm.aco.ACOOptimizer;
 import raj.cbm.core.ExperimentParams;
+import raj.cbm.eval.ParetoArchive;
 import raj.cbm.eval.SLAEvaluator;
-import raj.cbm.ga.NSGAIIOptimizer;
-import raj.cbm.mopso.MopsoOptimizer;
-import raj.cbm.pso.StandardPSOOptimizer;
-import raj.cbm.spea.SPEA2Optimizer;
+import raj.cbm.opt.Optimizer;
+import raj.cbm.opt.OptimizerResult;
+import raj.cbm.opt.OptimizerRunner;
 import raj.cbm.util.ResultsWriter;
 
 import javax.swing.*;
@@ -37,7 +36,14 @@ public class MainFrame extends JFrame {
     private final JTextField vmMipsField, vmPesField;
     private final JTextField aCountField, bCountField, cCountField, dCountField;
     private final JTextField schedIntervalField;
+    private final JComboBox<String> placementCombo;
+    private final JCheckBox searchPlacementBox;
+    private final JCheckBox onlineBox;
+    private final JTextField replanIntervalField, decisionBudgetField;
     private final JLabel csvPathLabel;
+    private final JButton runBtn;
+    private final ParetoExplorerPanel explorer = new ParetoExplorerPanel();
+    private final List<Optimizer> optimizers = OptimizerRunner.discover();
 
     private final DefaultCategoryDataset dsEnergy = new DefaultCategoryDataset();
     private final DefaultCategoryDataset dsP95    = new DefaultCategoryDataset();
@@ -58,9 +64,10 @@ public class MainFrame extends JFrame {
         gc.insets = new Insets(4,4,4,4);
         gc.fill = GridBagConstraints.HORIZONTAL;
 
-        algoCombo = new JComboBox<>(new String[]{
-                "All", "MOPSO", "NSGA-II", "StandardPSO", "SPEA-II", "ACO"
-        });
+        // "All" + every optimizer registered in META-INF/services/raj.cbm.opt.Optimizer
+        algoCombo = new JComboBox<>();
+        algoCombo.addItem("All");
+        for (Optimizer o : optimizers) algoCombo.addItem(o.name());
 
         seedField = new JTextField("42", 6);
         hostCountField = new JTextField("2", 6);
@@ -77,6 +84,20 @@ public class MainFrame extends JFrame {
 
         schedIntervalField = new JTextField("1.0", 6);
 
+        placementCombo = new JComboBox<>(new String[]{ExperimentParams.VM_ALLOC_SIMPLE, ExperimentParams.VM_ALLOC_BFD});
+        searchPlacementBox = new JCheckBox("optimizers search host pins (bfd)");
+        JPanel placementRow = new JPanel(new GridLayout(1, 2, 6, 0));
+        placementRow.add(placementCombo);
+        placementRow.add(searchPlacementBox);
+
+        onlineBox = new JCheckBox("replay results with online re-planning");
+        replanIntervalField = new JTextField("5.0", 6);
+        decisionBudgetField = new JTextField("20", 6);
+        JPanel onlineRow = new JPanel(new GridLayout(1, 3, 6, 0));
+        onlineRow.add(onlineBox);
+        onlineRow.add(replanIntervalField);
+        onlineRow.add(decisionBudgetField);
+
         int col = 0, row = 0;
         addRow(controls, gc, row++, "Algorithm", algoCombo);
         addRow(controls, gc, row++, "Seed", seedField);
@@ -84,8 +105,10 @@ public class MainFrame extends JFrame {
         addRow(controls, gc, row++, "VM MIPS / PEs", rowFields(vmMipsField, vmPesField));
         addRow(controls, gc, row++, "Class counts A/B/C/D", rowFields(aCountField, bCountField, cCountField, dCountField));
         addRow(controls, gc, row++, "Scheduling interval (s)", schedIntervalField);
+        addRow(controls, gc, row++, "VM placement", placementRow);
+        addRow(controls, gc, row++, "Online / interval (s) / budget (ms)", onlineRow);
 
-        JButton runBtn = new JButton("Run");
+        runBtn = new JButton("Run");
         runBtn.addActionListener(e -> onRun());
         gc.gridx = 0; gc.gridy = row; gc.gridwidth = 2;
         controls.add(runBtn, gc);
@@ -101,7 +124,8 @@ public class MainFrame extends JFrame {
         tabs.add("SLO-miss (%)", chartPanel("SLO-miss (%)", "Algorithm", "%", dsMiss));
         tabs.add("Throughput",   chartPanel("Throughput (cloudlets/s)", "Algorithm", "cl/s", dsThpt));
         tabs.add("Utilization",  chartPanel("CPU Utilization (avg)", "Algorithm", "util", dsUtil));
-        tabs.add("Time",         chartPanel("Makespan / Avg Response", "Algorithm", "sec|ms", dsTime));
+        tabs.add("Time",         chartPanel("Makespan / Avg Response / Decision latency", "Algorithm", "sec|ms", dsTime));
+        tabs.add("Pareto explorer", explorer);
 
         // ---- Layout ----
         setLayout(new BorderLayout());
@@ -129,7 +153,11 @@ public class MainFrame extends JFrame {
         return new ChartPanel(chart);
     }
 
-    /** Read all fields, run one or all algorithms, update charts + CSV. */
+    /**
+     * Read all fields, run one or all algorithms in the background, update charts + CSV.
+     * "All" runs every optimizer concurrently under one shared evaluator pool/budget;
+     * the Pareto explorer follows their archives live.
+     */
     private void onRun() {
         // read params
         ExperimentParams ep = ExperimentParams.defaults();
@@ -145,6 +173,11 @@ public class MainFrame extends JFrame {
             ep.classCCount = Integer.parseInt(cCountField.getText().trim());
             ep.classDCount = Integer.parseInt(dCountField.getText().trim());
             ep.schedulingInterval = Double.parseDouble(schedIntervalField.getText().trim());
+            ep.vmAllocation = (String) placementCombo.getSelectedItem();
+            ep.searchPlacement = searchPlacementBox.isSelected() && ExperimentParams.VM_ALLOC_BFD.equals(ep.vmAllocation);
+            ep.onlineMode = onlineBox.isSelected();
+            ep.replanIntervalSec = Double.parseDouble(replanIntervalField.getText().trim());
+            ep.decisionBudgetMs = Integer.parseInt(decisionBudgetField.getText().trim());
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Invalid input: " + ex, "Error", JOptionPane.ERROR_MESSAGE);
             return;
@@ -155,70 +188,67 @@ public class MainFrame extends JFrame {
 
         // clear charts
         dsEnergy.clear(); dsP95.clear(); dsMiss.clear(); dsThpt.clear(); dsUtil.clear(); dsTime.clear();
+        explorer.clearArchives();
 
         String choice = (String) algoCombo.getSelectedItem();
-        List<String> algos = new ArrayList<String>();
-        if ("All".equals(choice)) {
-            algos.addAll(Arrays.asList("MOPSO", "NSGA-II", "StandardPSO", "SPEA-II", "ACO"));
-        } else {
-            algos.add(choice);
+        final List<Optimizer> algos = new ArrayList<Optimizer>();
+        for (Optimizer o : optimizers) {
+            if ("All".equals(choice) || o.name().equals(choice)) algos.add(o);
         }
 
-        for (String algo : algos) {
-            SLAEvaluator.Metrics m = runAlgo(algo, ep);
-            if (m == null) continue;
-
-            // charts
-            dsEnergy.addValue(m.energyKWh, "kWh", algo);
-            dsP95.addValue(m.p95ms[0], "p95A", algo);
-            dsP95.addValue(m.p95ms[1], "p95B", algo);
-            dsP95.addValue(m.p95ms[2], "p95C", algo);
-            dsP95.addValue(m.p95ms[3], "p95D", algo);
-
-            dsMiss.addValue(m.missPct[0], "missA%", algo);
-            dsMiss.addValue(m.missPct[1], "missB%", algo);
-            dsMiss.addValue(m.missPct[2], "missC%", algo);
-            dsMiss.addValue(m.missPct[3], "missD%", algo);
-
-            dsThpt.addValue(m.throughput, "throughput", algo);
-
-            dsUtil.addValue(m.vmUtil[0], "vm0", algo);
-            dsUtil.addValue(m.vmUtil[1], "vm1", algo);
-            dsUtil.addValue(m.vmUtil[2], "vm2", algo);
-            dsUtil.addValue(m.vmUtil[3], "vm3", algo);
-            if (m.hostUtil.length > 0) dsUtil.addValue(m.hostUtil[0], "host0", algo);
-            if (m.hostUtil.length > 1) dsUtil.addValue(m.hostUtil[1], "host1", algo);
-
-            dsTime.addValue(m.makespanSec, "makespan_s", algo);
-            dsTime.addValue(m.avgResponseMs, "avgResp_ms", algo);
-
-            // CSV
-            ResultsWriter.write(algo, ep.seed, m, csvFile);
-        }
+        runBtn.setEnabled(false);
+        new SwingWorker<Void, OptimizerResult>() {
+            @Override protected Void doInBackground() throws Exception {
+                OptimizerRunner.runAll(ep, algos, new OptimizerRunner.Listener() {
+                    @Override public void started(Optimizer o, ParetoArchive archive) {
+                        SwingUtilities.invokeLater(() -> explorer.setArchive(o.name(), archive));
+                    }
+                    @Override public void finished(Optimizer o, OptimizerResult r) {
+                        ResultsWriter.write(r.algorithm, ep.seed, r.metrics, csvFile);
+                        publish(r);
+                    }
+                    @Override public void failed(Optimizer o, Throwable t) {
+                        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(MainFrame.this,
+                                o.name() + " failed: " + t, "Run error", JOptionPane.ERROR_MESSAGE));
+                    }
+                });
+                return null;
+            }
+            @Override protected void process(List<OptimizerResult> chunks) {
+                for (OptimizerResult r : chunks) addToCharts(r.algorithm, r.metrics);
+            }
+            @Override protected void done() { runBtn.setEnabled(true); }
+        }.execute();
     }
 
-    private SLAEvaluator.Metrics runAlgo(String algo, ExperimentParams ep) {
-        try {
-            if ("MOPSO".equals(algo)) {
-                MopsoOptimizer.Result r = new MopsoOptimizer().run(ep);
-                return r.metrics;
-            } else if ("NSGA-II".equals(algo)) {
-                NSGAIIOptimizer.Result r = new NSGAIIOptimizer().run(ep);
-                return r.metrics;
-            } else if ("StandardPSO".equals(algo)) {
-                StandardPSOOptimizer.Result r = new StandardPSOOptimizer().run(ep);
-                return r.metrics;
-            } else if ("SPEA-II".equals(algo)) {
-                SPEA2Optimizer.Result r = new SPEA2Optimizer().run(ep);
-                return r.metrics;
-            } else if ("ACO".equals(algo)) {
-                ACOOptimizer.Result r = new ACOOptimizer().run(ep);
-                return r.metrics;
-            }
-        } catch (Throwable t) {
-            JOptionPane.showMessageDialog(this, algo + " failed: " + t, "Run error", JOptionPane.ERROR_MESSAGE);
+    private void addToCharts(String algo, SLAEvaluator.Metrics m) {
+        // charts
+        dsEnergy.addValue(m.energyKWh, "kWh", algo);
+        dsP95.addValue(m.p95ms[0], "p95A", algo);
+        dsP95.addValue(m.p95ms[1], "p95B", algo);
+        dsP95.addValue(m.p95ms[2], "p95C", algo);
+        dsP95.addValue(m.p95ms[3], "p95D", algo);
+
+        dsMiss.addValue(m.missPct[0], "missA%", algo);
+        dsMiss.addValue(m.missPct[1], "missB%", algo);
+        dsMiss.addValue(m.missPct[2], "missC%", algo);
+        dsMiss.addValue(m.missPct[3], "missD%", algo);
+
+        dsThpt.addValue(m.throughput, "throughput", algo);
+
+        dsUtil.addValue(m.vmUtil[0], "vm0", algo);
+        dsUtil.addValue(m.vmUtil[1], "vm1", algo);
+        dsUtil.addValue(m.vmUtil[2], "vm2", algo);
+        dsUtil.addValue(m.vmUtil[3], "vm3", algo);
+        if (m.hostUtil.length > 0) dsUtil.addValue(m.hostUtil[0], "host0", algo);
+        if (m.hostUtil.length > 1) dsUtil.addValue(m.hostUtil[1], "host1", algo);
+
+        dsTime.addValue(m.makespanSec, "makespan_s", algo);
+        dsTime.addValue(m.avgResponseMs, "avgResp_ms", algo);
+        if (m.onlineDecisions > 0) {
+            dsTime.addValue(m.decisionP95Ms, "decisionP95_ms", algo);
+            dsTime.addValue(m.decisionMaxMs, "decisionMax_ms", algo);
         }
-        return null;
     }
 
     public static void main(String[] args) {
@@ -2,19 +2,22 @@ package raj.cbm.mopso;
 
 import raj.cbm.core.ExperimentParams;
 import raj.cbm.core.Plan;
-import raj.cbm.eval.SLAEvaluator;
+import raj.cbm.eval.ParetoArchive;
+import raj.cbm.opt.Evaluator;
+import raj.cbm.opt.Optimizer;
+import raj.cbm.opt.OptimizerResult;
 
 import java.util.Random;
 
 /** Minimal scaffold for MOPSO. */
-public class MopsoOptimizer {
+public class MopsoOptimizer implements Optimizer {
 
-    public static class Result {
-        public final SLAEvaluator.Metrics metrics; public final Plan plan;
-        public Result(SLAEvaluator.Metrics m, Plan p) { metrics = m; plan = p; }
-    }
+    @Override
+    public String name() { return "MOPSO"; }
 
-    public Result run(ExperimentParams ep) {
+    @Override
+    public OptimizerResult run(ExperimentParams ep, Evaluator ev, ParetoArchive archive) {
+        long t0 = System.nanoTime();
         Random rnd = new Random(ep.seed);
         Plan plan = new Plan();
         // Example: reserve more CPU to class A & B VMs
@@ -23,7 +26,7 @@ public class MopsoOptimizer {
         plan.setVmCap(2, 0.45);
         plan.setVmCap(3, 0.35);
         // Keep default mapping A->0,B->1,C->2,D->3
-        SLAEvaluator.Metrics m = SLAEvaluator.evaluate(ep, plan);
-        return new Result(m, plan);
+        archive.add(plan, ev.evaluate(plan));
+        return OptimizerResult.of(name(), archive, ev, t0);
     }
 }
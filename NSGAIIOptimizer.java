@@ -2,22 +2,26 @@ package raj.cbm.ga;
 
 import raj.cbm.core.ExperimentParams;
 import raj.cbm.core.Plan;
-import raj.cbm.eval.SLAEvaluator;
+import raj.cbm.eval.ParetoArchive;
+import raj.cbm.opt.Evaluator;
+import raj.cbm.opt.Optimizer;
+import raj.cbm.opt.OptimizerResult;
 
 /** Minimal scaffold for NSGA-II. */
-public class NSGAIIOptimizer {
-    public static class Result {
-        public final SLAEvaluator.Metrics metrics; public final Plan plan;
-        public Result(SLAEvaluator.Metrics m, Plan p) { metrics = m; plan = p; }
-    }
+public class NSGAIIOptimizer implements Optimizer {
+
+    @Override
+    public String name() { return "NSGA-II"; }
 
-    public Result run(ExperimentParams ep) {
+    @Override
+    public OptimizerResult run(ExperimentParams ep, Evaluator ev, ParetoArchive archive) {
+        long t0 = System.nanoTime();
         Plan plan = new Plan();
         plan.setVmCap(0, 0.80);
         plan.setVmCap(1, 0.60);
         plan.setVmCap(2, 0.50);
         plan.setVmCap(3, 0.30);
-        SLAEvaluator.Metrics m = SLAEvaluator.evaluate(ep, plan);
-        return new Result(m, plan);
+        archive.add(plan, ev.evaluate(plan));
+        return OptimizerResult.of(name(), archive, ev, t0);
     }
 }
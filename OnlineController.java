@@ -0,0 +1,270 @@
+package raj.cbm.eval;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import raj.cbm.core.ExperimentParams;
+import raj.cbm.pso.WarmStartPso;
+import raj.cbm.util.CsvUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Rolling-horizon cap controller that lives inside one CloudSim run
+ * (SLAEvaluator.replayOnline, i.e. replays of reported plans, not search candidates).
+ * Every ep.replanIntervalSec simulated seconds it:
+ * - observes per-class completions since the last decision (p95, miss%) and the
+ *   per-VM backlog (remaining MI of every running/waiting cloudlet);
+ * - re-optimizes the four VM caps with a warm-started PSO under a wall-clock
+ *   budget of ep.decisionBudgetMs (and ep.onlineMaxIterations), starting from the
+ *   caps currently in force;
+ * - applies the result to the running CloudletSchedulerCapped instances from the
+ *   decision time on, and asks the datacenter for a processing update at that time
+ *   so completion events are re-estimated at the new caps.
+ *
+ * CloudSim keeps its state in statics, so a decision cannot run nested simulations.
+ * Candidates are scored on a processor-sharing surrogate of the backlog instead:
+ * on a time-shared VM every cloudlet's rate scales with the cap, so completion
+ * times at cap c are the cap-1 times divided by c and are computed once per decision.
+ * Score = predicted energy / energy at full caps + sum of predicted class miss% / 100.
+ */
+final class OnlineController extends SimEntity {
+
+    private static final int REPLAN = 770_001; // self event tag, clear of CloudSimTags
+    private static final String HEADER =
+            "algo,seed,plan,decision,sim_time_s,latency_ms,budget_ms,evaluations,predicted_score,cap0,cap1,cap2,cap3,"
+          + "done_A,done_B,done_C,done_D,p95A_ms,p95B_ms,p95C_ms,p95D_ms,missA_pct,missB_pct,missC_pct,missD_pct";
+
+    private final ExperimentParams ep;
+    private final int datacenterId;
+    private final DatacenterBroker broker;
+    private final List<Vm> vms;
+    private final int totalCloudlets;
+    private final double interval, thrMs, minCap;
+    private final SplittableRandom rnd;
+    private final File csv;
+    private final String runTag;                 // algo,seed,"plan key" prefix of every log row
+
+    private final List<Double> decisionMs = new ArrayList<Double>();
+    private int seenReceived = 0;
+
+    OnlineController(ExperimentParams ep, int datacenterId, DatacenterBroker broker, List<Vm> vms,
+                     int totalCloudlets, String algo, String planKey) {
+        super("online-controller");
+        this.ep = ep;
+        this.datacenterId = datacenterId;
+        this.broker = broker;
+        this.vms = vms;
+        this.totalCloudlets = totalCloudlets;
+        this.interval = ep.replanIntervalSec > 0 ? ep.replanIntervalSec : 5.0;
+        this.thrMs = ep.p95MissThresholdMs > 0 ? ep.p95MissThresholdMs : 50.0;
+        this.minCap = (ep.onlineMinCap > 0 && ep.onlineMinCap < 1) ? ep.onlineMinCap : 0.1;
+        this.rnd = new SplittableRandom(ep.seed + 5);
+        this.csv = ep.onlineLogCsv != null && !ep.onlineLogCsv.trim().isEmpty()
+                ? new File(ep.onlineLogCsv.trim()).getAbsoluteFile() : null;
+        this.runTag = String.format(Locale.US, "%s,%d,\"%s\"", algo, ep.seed, planKey);
+    }
+
+    @Override
+    public void startEntity() { schedule(getId(), interval, REPLAN); }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        if (ev.getTag() == REPLAN) replan();
+    }
+
+    @Override
+    public void shutdownEntity() {}
+
+    /** Decision count and wall-clock decision latency (p95, max) into m. */
+    void fill(SLAEvaluator.Metrics m) {
+        m.onlineDecisions = decisionMs.size();
+        m.decisionP95Ms = SLAEvaluator.percentile(decisionMs, 95);
+        double max = 0.0;
+        for (double d : decisionMs) if (d > max) max = d;
+        m.decisionMaxMs = max;
+    }
+
+    private void replan() {
+        long t0 = System.nanoTime();
+        long deadline = t0 + Math.max(1, ep.decisionBudgetMs) * 1_000_000L;
+        double now = CloudSim.clock();
+
+        // 1) Observe: completions since the last decision (achieved under the previous caps).
+        List<Cloudlet> received = broker.getCloudletReceivedList();
+        List<List<Double>> window = new ArrayList<List<Double>>(4);
+        for (int c = 0; c < 4; c++) window.add(new ArrayList<Double>());
+        for (int i = seenReceived; i < received.size(); i++) {
+            Cloudlet cl = received.get(i);
+            double start = cl.getExecStartTime();
+            double lat = (start >= 0.0) ? Math.max(0.0, cl.getFinishTime() - start) : Math.max(0.0, cl.getFinishTime());
+            window.get(SLAEvaluator.classIndexById(cl.getCloudletId())).add(lat * 1000.0);
+        }
+        boolean progressed = received.size() > seenReceived;
+        seenReceived = received.size();
+
+        // ... and the backlog per VM.
+        int V = vms.size();
+        CloudletSchedulerCapped[] sched = new CloudletSchedulerCapped[V];
+        List<List<double[]>> backlog = new ArrayList<List<double[]>>(V);
+        int pending = 0;
+        for (int v = 0; v < V; v++) {
+            List<double[]> b = new ArrayList<double[]>();
+            if (vms.get(v).getCloudletScheduler() instanceof CloudletSchedulerCapped) {
+                sched[v] = (CloudletSchedulerCapped) vms.get(v).getCloudletScheduler();
+                sched[v].collectBacklog(b);
+            }
+            pending += b.size();
+            backlog.add(b);
+        }
+        // Nothing left to steer: stop rescheduling so the simulation can end.
+        if (seenReceived >= totalCloudlets || (pending == 0 && !progressed)) return;
+
+        // 2) Decide: warm-started PSO on the surrogate, within the wall-clock budget.
+        double[] warm = new double[V];
+        for (int v = 0; v < V; v++) warm[v] = sched[v] != null ? sched[v].getCap() : 1.0;
+        int evaluations = 0;
+        double score = 0.0;
+        double[] caps = warm;
+        if (pending > 0) {
+            Surrogate model = new Surrogate(backlog, now);
+            WarmStartPso.Outcome out = WarmStartPso.minimise(model::score, warm, minCap, 1.0,
+                    Math.max(2, ep.onlineParticles), Math.max(1, ep.onlineMaxIterations), deadline, rnd);
+            caps = out.best;
+            score = out.value;
+            evaluations = out.evaluations;
+        }
+
+        // 3) Act: new caps hold from now on; the update at `now` closes the old-cap span
+        //    (a no-op if the datacenter already updated at `now`; the switch then happens
+        //    at its next update, still split at `now`).
+        for (int v = 0; v < V; v++) if (sched[v] != null) sched[v].setCap(caps[v], now);
+        schedule(datacenterId, 0.0, CloudSimTags.VM_DATACENTER_EVENT);
+        double latencyMs = (System.nanoTime() - t0) / 1e6;
+        decisionMs.add(latencyMs);
+
+        log(now, latencyMs, evaluations, score, caps, window);
+        schedule(getId(), interval, REPLAN);
+    }
+
+    /** Processor-sharing model of the current backlog, scored for a vector of VM caps. */
+    private final class Surrogate {
+        final double[][] finishAtFull;   // per VM: completion offsets (s) at cap 1, in completion order
+        final int[][] cls;               // class of each entry above
+        final double[][] startOf;        // exec start time of each entry above
+        final int[] hostOf;              // VM -> host group, -1 = unknown
+        final double[] vmShare;          // VM MIPS / host MIPS (PowerHost charges requested, not capped, MIPS)
+        final int[] classTotal = new int[4];
+        final int hosts;
+        final double now, energyRef;
+
+        Surrogate(List<List<double[]>> backlog, double now) {
+            this.now = now;
+            int V = vms.size();
+            finishAtFull = new double[V][];
+            cls = new int[V][];
+            startOf = new double[V][];
+            hostOf = new int[V];
+            vmShare = new double[V];
+            Map<Host, Integer> group = new IdentityHashMap<Host, Integer>();
+            for (int v = 0; v < V; v++) {
+                Vm vm = vms.get(v);
+                Host h = vm.getHost();
+                hostOf[v] = -1;
+                if (h != null) {
+                    Integer g = group.get(h);
+                    if (g == null) { g = group.size(); group.put(h, g); }
+                    hostOf[v] = g;
+                    vmShare[v] = h.getTotalMips() > 0 ? vm.getMips() * vm.getNumberOfPes() / h.getTotalMips() : 0.0;
+                }
+                drain(v, backlog.get(v), vm.getMips(), Math.max(1, vm.getNumberOfPes()));
+                for (int c : cls[v]) classTotal[c]++;
+            }
+            hosts = group.size();
+            double[] full = new double[V];
+            Arrays.fill(full, 1.0);
+            energyRef = energy(full);
+        }
+
+        /** Time-shared drain at cap 1: each of n active cloudlets runs at mips * min(1, pes / n). */
+        private void drain(int v, List<double[]> b, double mips, int pes) {
+            double[][] e = b.toArray(new double[0][]);
+            Arrays.sort(e, (x, y) -> Double.compare(x[1], y[1]));
+            int n = e.length;
+            finishAtFull[v] = new double[n];
+            cls[v] = new int[n];
+            startOf[v] = new double[n];
+            double t = 0.0, done = 0.0;
+            for (int k = 0; k < n; k++) {
+                int active = n - k;
+                double rate = mips * Math.min(1.0, (double) pes / active);
+                if (rate > 0) t += Math.max(0.0, e[k][1] - done) / rate;
+                done = Math.max(done, e[k][1]);
+                finishAtFull[v][k] = t;
+                cls[v][k] = SLAEvaluator.classIndexById((int) e[k][0]);
+                startOf[v][k] = e[k][2] >= 0.0 ? e[k][2] : now;
+            }
+        }
+
+        double score(double[] caps) {
+            int[] miss = new int[4];
+            double thrSec = thrMs / 1000.0;
+            for (int v = 0; v < caps.length; v++) {
+                double inv = 1.0 / Math.max(caps[v], 1e-6);
+                double[] f = finishAtFull[v];
+                for (int k = 0; k < f.length; k++) {
+                    if (now + f[k] * inv - startOf[v][k] > thrSec) miss[cls[v][k]]++;
+                }
+            }
+            double s = energyRef > 0 ? energy(caps) / energyRef : 0.0;
+            for (int c = 0; c < 4; c++) if (classTotal[c] > 0) s += (double) miss[c] / classTotal[c];
+            return s;
+        }
+
+        /** Linear power per host: idle while any of its VMs drains, plus dynamic power per VM share. */
+        private double energy(double[] caps) {
+            double idle = ep.hostIdleW > 0 ? ep.hostIdleW : 100.0;
+            double dyn = (ep.hostMaxW > 0 ? ep.hostMaxW : 250.0) - idle;
+            double[] busy = new double[hosts];
+            double ws = 0.0;
+            for (int v = 0; v < caps.length; v++) {
+                if (hostOf[v] < 0 || finishAtFull[v].length == 0) continue;
+                double d = finishAtFull[v][finishAtFull[v].length - 1] / Math.max(caps[v], 1e-6);
+                if (d > busy[hostOf[v]]) busy[hostOf[v]] = d;
+                ws += dyn * vmShare[v] * d;
+            }
+            for (double d : busy) ws += idle * d;
+            return ws;
+        }
+    }
+
+    private void log(double now, double latencyMs, int evaluations, double score, double[] caps,
+                     List<List<Double>> window) {
+        if (csv == null) return;
+        StringBuilder sb = new StringBuilder();
+        sb.append(runTag);
+        sb.append(String.format(Locale.US, ",%d,%.3f,%.3f,%d,%d,%.6f",
+                decisionMs.size() - 1, now, latencyMs, ep.decisionBudgetMs, evaluations, score));
+        for (int v = 0; v < 4; v++) sb.append(String.format(Locale.US, ",%.4f", v < caps.length ? caps[v] : 1.0));
+        for (int c = 0; c < 4; c++) sb.append(',').append(window.get(c).size());
+        for (int c = 0; c < 4; c++) sb.append(String.format(Locale.US, ",%.3f", SLAEvaluator.percentile(window.get(c), 95)));
+        for (int c = 0; c < 4; c++) sb.append(String.format(Locale.US, ",%.2f", SLAEvaluator.missPct(window.get(c), thrMs)));
+        try {
+            CsvUtils.appendWithHeader(csv, HEADER, sb.toString());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
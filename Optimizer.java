@@ -0,0 +1,27 @@
+package raj.cbm.opt;
+
+import raj.cbm.core.ExperimentParams;
+import raj.cbm.eval.ParetoArchive;
+
+/**
+ * Common optimizer SPI. Implementations are discovered with ServiceLoader
+ * (META-INF/services/raj.cbm.opt.Optimizer) and need a public no-arg constructor.
+ */
+public interface Optimizer {
+
+    /** Display name, also used as the CSV "algo" column (e.g. "MOPSO", "ACO"). */
+    String name();
+
+    /**
+     * Runs the search. All simulations go through ev (shared cache + budget);
+     * every evaluated plan should be offered to archive.
+     */
+    OptimizerResult run(ExperimentParams ep, Evaluator ev, ParetoArchive archive);
+
+    /** Standalone run with a private evaluator pool and archive. */
+    default OptimizerResult run(ExperimentParams ep) {
+        try (EvaluatorPool pool = new EvaluatorPool(ep)) {
+            return run(ep, pool.newEvaluator(), new ParetoArchive());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package raj.cbm.opt;
+
+import raj.cbm.core.Plan;
+import raj.cbm.eval.ParetoArchive;
+import raj.cbm.eval.SLAEvaluator;
+
+/** Result shared by all optimizers: archive, reported plan, evaluation count and timings. */
+public final class OptimizerResult {
+    public final String algorithm;
+    public final ParetoArchive archive;
+    public final Plan plan;                    // reported plan (archive knee)
+    public final SLAEvaluator.Metrics metrics; // metrics of plan (of its online replay under ep.onlineMode)
+    public final int evaluations;              // simulations this run triggered (cache hits excluded)
+    public final long wallMillis;              // wall-clock time of the run
+    public final long evalMillis;              // time spent in evaluator calls, incl. waiting for the simulator
+
+    public OptimizerResult(String algorithm, ParetoArchive archive, Plan plan, SLAEvaluator.Metrics metrics,
+                           int evaluations, long wallMillis, long evalMillis) {
+        this.algorithm = algorithm;
+        this.archive = archive;
+        this.plan = plan;
+        this.metrics = metrics;
+        this.evaluations = evaluations;
+        this.wallMillis = wallMillis;
+        this.evalMillis = evalMillis;
+    }
+
+    /** Result reporting the archive's knee member; evaluates the default plan if the archive is empty. */
+    public static OptimizerResult of(String algorithm, ParetoArchive archive, Evaluator ev, long startNanos) {
+        Plan plan;
+        SLAEvaluator.Metrics m;
+        ParetoArchive.Entry best = archive.best();
+        if (best != null) {
+            plan = best.plan;
+            m = best.metrics;
+        } else {
+            plan = new Plan();
+            m = ev.evaluate(plan);
+            archive.add(plan, m);
+        }
+        long wall = (System.nanoTime() - startNanos) / 1_000_000L;
+        return new OptimizerResult(algorithm, archive, plan, m, ev.evaluations(), wall, ev.evalMillis());
+    }
+}
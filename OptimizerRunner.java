@@ -0,0 +1,91 @@
+package raj.cbm.opt;
+
+import raj.cbm.core.ExperimentParams;
+import raj.cbm.eval.ParetoArchive;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Discovers optimizers via ServiceLoader and runs a set of them concurrently,
+ * one thread each, under a shared {@link EvaluatorPool} (isolated CloudSim copies,
+ * cache + evaluation budget), so "All" takes roughly as long as the slowest optimizer
+ * when there are enough cores.
+ */
+public final class OptimizerRunner {
+    private OptimizerRunner(){}
+
+    /** Callbacks from the runner threads (not the EDT). */
+    public interface Listener {
+        /** Before the optimizer starts; archive will receive its plans as they are evaluated. */
+        void started(Optimizer o, ParetoArchive archive);
+        void finished(Optimizer o, OptimizerResult r);
+        void failed(Optimizer o, Throwable t);
+    }
+
+    /** All registered optimizers, in service-file order. */
+    public static List<Optimizer> discover() {
+        List<Optimizer> out = new ArrayList<Optimizer>();
+        for (Optimizer o : ServiceLoader.load(Optimizer.class)) out.add(o);
+        return out;
+    }
+
+    /** Registered optimizer with the given name, or null. */
+    public static Optimizer find(String name) {
+        for (Optimizer o : discover()) if (o.name().equals(name)) return o;
+        return null;
+    }
+
+    /**
+     * Runs all algos concurrently and waits for them.
+     * @return results by optimizer name, in algos order; failed optimizers are absent
+     */
+    public static Map<String, OptimizerResult> runAll(final ExperimentParams ep, List<Optimizer> algos,
+                                                      final Listener listener) throws InterruptedException {
+        final EvaluatorPool pool = new EvaluatorPool(ep);
+        ExecutorService exec = Executors.newFixedThreadPool(Math.max(1, algos.size()));
+        Map<Optimizer, Future<OptimizerResult>> futures = new LinkedHashMap<Optimizer, Future<OptimizerResult>>();
+        try {
+            for (final Optimizer o : algos) {
+                futures.put(o, exec.submit(() -> {
+                    ParetoArchive archive = new ParetoArchive();
+                    if (listener != null) listener.started(o, archive);
+                    OptimizerResult r;
+                    try {
+                        r = o.run(ep, pool.newEvaluator(), archive);
+                        // Online mode re-plans during the run; replay only the reported plan, not every candidate.
+                        if (ep.onlineMode && r.plan != null) {
+                            r = new OptimizerResult(r.algorithm, r.archive, r.plan, pool.replayOnline(o.name(), r.plan),
+                                                    r.evaluations, r.wallMillis, r.evalMillis);
+                        }
+                    } catch (RuntimeException | Error t) {
+                        if (listener != null) listener.failed(o, t);
+                        throw t;
+                    }
+                    // Report as soon as this one is done, not in submission order.
+                    if (listener != null) listener.finished(o, r);
+                    return r;
+                }));
+            }
+            Map<String, OptimizerResult> results = new LinkedHashMap<String, OptimizerResult>();
+            for (Map.Entry<Optimizer, Future<OptimizerResult>> e : futures.entrySet()) {
+                try {
+                    results.put(e.getKey().name(), e.getValue().get());
+                } catch (ExecutionException ignore) {
+                    // already reported through listener.failed
+                }
+            }
+            return results;
+        } finally {
+            exec.shutdownNow();
+            pool.close();
+        }
+    }
+}
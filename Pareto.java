@@ -0,0 +1,48 @@
+package raj.cbm.eval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Pareto dominance helpers on minimised objective vectors. */
+public final class Pareto {
+    private Pareto(){}
+
+    /** True if a is no worse than b everywhere and strictly better somewhere. */
+    public static boolean dominates(double[] a, double[] b) {
+        boolean better = false;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] > b[i]) return false;
+            if (a[i] < b[i]) better = true;
+        }
+        return better;
+    }
+
+    /** True if a is no worse than b in every objective (includes a == b). */
+    public static boolean weaklyDominates(double[] a, double[] b) {
+        for (int i = 0; i < a.length; i++) if (a[i] > b[i]) return false;
+        return true;
+    }
+
+    /** Non-dominated subset of pts; duplicates are kept once. O(n^2). */
+    public static List<double[]> nonDominated(List<double[]> pts) {
+        List<double[]> out = new ArrayList<double[]>(pts.size());
+        for (double[] p : pts) {
+            boolean keep = true;
+            for (int j = 0; j < out.size(); ) {
+                double[] q = out.get(j);
+                if (weaklyDominates(q, p)) { keep = false; break; }
+                if (dominates(p, q)) { out.set(j, out.get(out.size() - 1)); out.remove(out.size() - 1); }
+                else j++;
+            }
+            if (keep) out.add(p);
+        }
+        return out;
+    }
+
+    /** Index of p in pts by value, or -1. */
+    public static int indexOf(List<double[]> pts, double[] p) {
+        for (int i = 0; i < pts.size(); i++) if (Arrays.equals(pts.get(i), p)) return i;
+        return -1;
+    }
+}
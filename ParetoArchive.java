@@ -0,0 +1,99 @@
+package raj.cbm.eval;
+
+import raj.cbm.core.Plan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Unbounded archive of non-dominated (Plan, Metrics) pairs.
+ * Thread-safe; optimizers add every evaluated plan and the archive keeps the front.
+ */
+public final class ParetoArchive {
+
+    /** One archived solution; objectives are {@link SLAEvaluator.Metrics#objectives()}. */
+    public static final class Entry {
+        public final Plan plan;
+        public final SLAEvaluator.Metrics metrics;
+        public final double[] objectives;
+        Entry(Plan plan, SLAEvaluator.Metrics metrics) {
+            this.plan = plan;
+            this.metrics = metrics;
+            this.objectives = metrics.objectives();
+        }
+    }
+
+    /** Change callback, invoked on the adding thread after the archive changed; keep it cheap. */
+    public interface Listener {
+        void archiveChanged(ParetoArchive archive);
+    }
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+    private volatile long version;
+
+    /** Adds the pair unless it is weakly dominated; evicts members it dominates. */
+    public boolean add(Plan plan, SLAEvaluator.Metrics m) {
+        if (plan == null || m == null) return false;
+        Entry e = new Entry(plan.copy(), m);
+        synchronized (this) {
+            for (Entry q : entries) if (Pareto.weaklyDominates(q.objectives, e.objectives)) return false;
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                if (Pareto.dominates(e.objectives, entries.get(i).objectives)) entries.remove(i);
+            }
+            entries.add(e);
+            version++;
+        }
+        for (Listener l : listeners) l.archiveChanged(this);
+        return true;
+    }
+
+    public void addListener(Listener l) { if (l != null) listeners.add(l); }
+    public void removeListener(Listener l) { listeners.remove(l); }
+
+    /** Incremented on every change; cheap way to tell whether a snapshot is stale. */
+    public long version() { return version; }
+
+    public synchronized int size() { return entries.size(); }
+
+    /** Snapshot of the current members. */
+    public synchronized List<Entry> entries() { return new ArrayList<Entry>(entries); }
+
+    /** Snapshot of the current objective vectors (same order as {@link #entries()}). */
+    public synchronized List<double[]> objectives() {
+        List<double[]> out = new ArrayList<double[]>(entries.size());
+        for (Entry e : entries) out.add(e.objectives);
+        return out;
+    }
+
+    /**
+     * Knee-like pick used when a single plan must be reported: the member with the
+     * smallest sum of min-max normalised objectives. Null when empty.
+     */
+    public synchronized Entry best() {
+        if (entries.isEmpty()) return null;
+        int d = entries.get(0).objectives.length;
+        double[] lo = new double[d], hi = new double[d];
+        Arrays.fill(lo, Double.POSITIVE_INFINITY);
+        Arrays.fill(hi, Double.NEGATIVE_INFINITY);
+        for (Entry e : entries) {
+            for (int i = 0; i < d; i++) {
+                lo[i] = Math.min(lo[i], e.objectives[i]);
+                hi[i] = Math.max(hi[i], e.objectives[i]);
+            }
+        }
+        Entry best = null;
+        double bestScore = Double.POSITIVE_INFINITY;
+        for (Entry e : entries) {
+            double s = 0.0;
+            for (int i = 0; i < d; i++) {
+                double r = hi[i] - lo[i];
+                if (r > 0) s += (e.objectives[i] - lo[i]) / r;
+            }
+            if (s < bestScore) { bestScore = s; best = e; }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,356 @@
+package raj.cbm.gui;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartMouseEvent;
+import org.jfree.chart.ChartMouseListener;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.axis.SymbolAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.xy.DefaultXYDataset;
+import raj.cbm.core.Plan;
+import raj.cbm.eval.ParetoArchive;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pareto explorer tab: scatter of two chosen objectives plus a parallel-coordinates
+ * view of all ten, for archives that may hold 100k+ points.
+ *  - Level of detail: the scatter keeps one point per CELL_PX x CELL_PX block of the
+ *    plot area, coarsened until at most MAX_POINTS remain; parallel coordinates draw
+ *    at most MAX_LINES of those as a single NaN-separated series.
+ *  - Datasets are prepared off the EDT in a SwingWorker; archive changes only set a
+ *    dirty flag, and a Swing timer starts at most one preparation at a time, skipped
+ *    when the archive version and axes match what is already shown.
+ *  - Clicking the scatter shows the nearest point's Plan caps and mapping.
+ */
+public class ParetoExplorerPanel extends JPanel {
+
+    static final String[] OBJECTIVES = {
+            "Energy (kWh)", "p95 A (ms)", "p95 B (ms)", "p95 C (ms)", "p95 D (ms)",
+            "miss A (%)", "miss B (%)", "miss C (%)", "miss D (%)", "Throughput (cl/s)"
+    };
+    private static final String[] AXIS_SHORT = {
+            "kWh", "p95A", "p95B", "p95C", "p95D", "missA", "missB", "missC", "missD", "thpt"
+    };
+    private static final int CELL_PX = 4;                // LOD cell edge in screen pixels
+    private static final int MAX_POINTS = 3_000;         // hard cap on scatter points after LOD
+    private static final int MAX_LINES = 400;
+    private static final int KEEP_ALL = 2_000;           // below this, no downsampling at all
+    private static final int REFRESH_MS = 250;
+    private static final double CLICK_RADIUS_PX = 10.0;
+
+    private final Map<String, ParetoArchive> archives = new LinkedHashMap<String, ParetoArchive>();
+    private final JComboBox<String> archiveCombo = new JComboBox<String>();
+    private final JComboBox<String> xCombo = new JComboBox<String>(OBJECTIVES);
+    private final JComboBox<String> yCombo = new JComboBox<String>(OBJECTIVES);
+    private final JLabel status = new JLabel("No archive");
+    private final JTextArea details = new JTextArea(8, 28);
+
+    private final DefaultXYDataset scatterData = new DefaultXYDataset();
+    private final DefaultXYDataset parallelData = new DefaultXYDataset();
+    private final ChartPanel scatterPanel;
+    private final XYPlot scatterPlot;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile ParetoArchive watched;              // archive behind the combo selection
+    private final ParetoArchive.Listener listener = a -> { if (a == watched) dirty.set(true); };
+    private SwingWorker<Prepared, Void> worker;
+    private Prepared shown;
+    private ParetoArchive.Entry selected;
+
+    public ParetoExplorerPanel() {
+        super(new BorderLayout());
+
+        xCombo.setSelectedIndex(0);   // energy
+        yCombo.setSelectedIndex(1);   // p95 A
+        archiveCombo.addActionListener(e -> { watched = current(); selected = null; dirty.set(true); });
+        xCombo.addActionListener(e -> dirty.set(true));
+        yCombo.addActionListener(e -> dirty.set(true));
+
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        top.add(new JLabel("Archive")); top.add(archiveCombo);
+        top.add(new JLabel("X")); top.add(xCombo);
+        top.add(new JLabel("Y")); top.add(yCombo);
+        top.add(status);
+
+        // Scatter: series 0 = front, series 1 = selected point.
+        JFreeChart scatter = ChartFactory.createScatterPlot("Pareto front", OBJECTIVES[0], OBJECTIVES[1], scatterData);
+        scatterPlot = scatter.getXYPlot();
+        XYLineAndShapeRenderer dots = new XYLineAndShapeRenderer(false, true);
+        dots.setSeriesShape(0, new Rectangle2D.Double(-1.5, -1.5, 3, 3));
+        dots.setSeriesPaint(0, new Color(40, 90, 180));
+        dots.setSeriesShape(1, new Ellipse2D.Double(-5, -5, 10, 10));
+        dots.setSeriesPaint(1, Color.RED);
+        scatterPlot.setRenderer(dots);
+        ((NumberAxis) scatterPlot.getDomainAxis()).setAutoRangeIncludesZero(false);
+        ((NumberAxis) scatterPlot.getRangeAxis()).setAutoRangeIncludesZero(false);
+        scatter.removeLegend();
+        scatterPanel = new ChartPanel(scatter);
+        scatterPanel.getChartRenderingInfo().setEntityCollection(null); // picking is done by coordinates
+        scatterPanel.addChartMouseListener(new ChartMouseListener() {
+            @Override public void chartMouseClicked(ChartMouseEvent e) { pick(e.getTrigger().getPoint()); }
+            @Override public void chartMouseMoved(ChartMouseEvent e) { }
+        });
+
+        // Parallel coordinates: x = objective index, y = min-max normalised value.
+        JFreeChart parallel = ChartFactory.createXYLineChart("Parallel coordinates (normalised)", "", "", parallelData);
+        XYPlot pp = parallel.getXYPlot();
+        XYLineAndShapeRenderer lines = new XYLineAndShapeRenderer(true, false);
+        lines.setSeriesPaint(0, new Color(40, 90, 180, 60));
+        pp.setRenderer(lines);
+        pp.setDomainAxis(new SymbolAxis("", AXIS_SHORT));
+        pp.getRangeAxis().setRange(0.0, 1.0);
+        parallel.removeLegend();
+        ChartPanel parallelPanel = new ChartPanel(parallel);
+        parallelPanel.getChartRenderingInfo().setEntityCollection(null);
+
+        details.setEditable(false);
+        details.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        details.setText("Click a point in the scatter to see its plan.");
+
+        JTabbedPane views = new JTabbedPane();
+        views.add("Scatter", scatterPanel);
+        views.add("Parallel coordinates", parallelPanel);
+
+        add(top, BorderLayout.NORTH);
+        add(views, BorderLayout.CENTER);
+        add(new JScrollPane(details), BorderLayout.EAST);
+
+        new Timer(REFRESH_MS, e -> refreshIfDirty()).start();
+    }
+
+    /** Registers (or replaces) a named archive; the view follows its changes live. Call on the EDT. */
+    public void setArchive(String name, ParetoArchive archive) {
+        ParetoArchive old = archives.put(name, archive);
+        if (old != null) old.removeListener(listener);
+        else archiveCombo.addItem(name);
+        archive.addListener(listener);
+        if (archiveCombo.getSelectedItem() == null) archiveCombo.setSelectedItem(name);
+        watched = current();
+        dirty.set(true);
+    }
+
+    /** Drops all archives and clears the charts. Call on the EDT. */
+    public void clearArchives() {
+        for (ParetoArchive a : archives.values()) a.removeListener(listener);
+        archives.clear();
+        archiveCombo.removeAllItems();
+        watched = null;
+        if (worker != null) worker.cancel(false);
+        worker = null;
+        shown = null;
+        selected = null;
+        scatterData.removeSeries("front");
+        scatterData.removeSeries("selected");
+        parallelData.removeSeries("lines");
+        status.setText("No archive");
+    }
+
+    private ParetoArchive current() {
+        Object name = archiveCombo.getSelectedItem();
+        return name == null ? null : archives.get(name);
+    }
+
+    private void refreshIfDirty() {
+        if (worker != null && !worker.isDone()) return;
+        if (!dirty.getAndSet(false)) return;
+        final ParetoArchive archive = current();
+        if (archive == null) return;
+        final int xi = xCombo.getSelectedIndex(), yi = yCombo.getSelectedIndex();
+        Rectangle2D area = scatterPanel.getScreenDataArea();
+        final int gx = Math.max(1, (int) ((area != null && area.getWidth() > 0 ? area.getWidth() : 600) / CELL_PX));
+        final int gy = Math.max(1, (int) ((area != null && area.getHeight() > 0 ? area.getHeight() : 400) / CELL_PX));
+        final long version = archive.version(); // read before the snapshot, so it can only under-report
+        Prepared p = shown;
+        if (p != null && p.archive == archive && p.version == version && p.xi == xi && p.yi == yi) return;
+        worker = new SwingWorker<Prepared, Void>() {
+            @Override protected Prepared doInBackground() { return Prepared.of(archive, version, archive.entries(), xi, yi, gx, gy); }
+            @Override protected void done() {
+                if (isCancelled() || archive != current()) return;
+                try { show(get()); }
+                catch (Exception ex) { status.setText("Refresh failed: " + ex); }
+            }
+        };
+        worker.execute();
+    }
+
+    private void show(Prepared p) {
+        shown = p;
+        scatterPlot.getDomainAxis().setLabel(OBJECTIVES[p.xi]);
+        scatterPlot.getRangeAxis().setLabel(OBJECTIVES[p.yi]);
+        scatterData.addSeries("front", p.scatter);
+        parallelData.addSeries("lines", p.lines);
+        showSelected();
+        status.setText(String.format(Locale.US, "%d points, showing %d (%d lines)",
+                p.total, p.entries.size(), p.lineCount));
+    }
+
+    private void pick(Point screen) {
+        Prepared p = shown;
+        if (p == null || p.entries.isEmpty()) return;
+        Rectangle2D area = scatterPanel.getScreenDataArea();
+        int best = -1;
+        double bestD2 = CLICK_RADIUS_PX * CLICK_RADIUS_PX;
+        for (int i = 0; i < p.entries.size(); i++) {
+            double sx = scatterPlot.getDomainAxis().valueToJava2D(p.scatter[0][i], area, scatterPlot.getDomainAxisEdge());
+            double sy = scatterPlot.getRangeAxis().valueToJava2D(p.scatter[1][i], area, scatterPlot.getRangeAxisEdge());
+            double dx = sx - screen.getX(), dy = sy - screen.getY(), d2 = dx * dx + dy * dy;
+            if (d2 < bestD2) { bestD2 = d2; best = i; }
+        }
+        if (best < 0) return;
+        selected = p.entries.get(best);
+        showSelected();
+        details.setText(describe(selected));
+        details.setCaretPosition(0);
+    }
+
+    private void showSelected() {
+        if (selected == null || shown == null) { scatterData.removeSeries("selected"); return; }
+        scatterData.addSeries("selected", new double[][]{
+                {display(selected.objectives, shown.xi)}, {display(selected.objectives, shown.yi)}});
+    }
+
+    private static String describe(ParetoArchive.Entry e) {
+        StringBuilder sb = new StringBuilder();
+        Plan plan = e.plan;
+        sb.append("CPU caps\n");
+        for (int v = 0; v < Plan.VM_COUNT; v++) {
+            sb.append(String.format(Locale.US, "  VM%d  %.3f%n", v, plan.getVmCap(v)));
+        }
+        sb.append("Mapping\n");
+        for (int c = 0; c < Plan.CLASS_COUNT; c++) {
+            sb.append(String.format(Locale.US, "  %c -> VM%d%n", (char) ('A' + c), plan.getClassVm(c)));
+        }
+        for (int v = 0; v < Plan.VM_COUNT; v++) {
+            if (plan.getVmHost(v) >= 0) sb.append(String.format(Locale.US, "  VM%d pinned to host %d%n", v, plan.getVmHost(v)));
+        }
+        sb.append("Objectives\n");
+        for (int i = 0; i < OBJECTIVES.length; i++) {
+            sb.append(String.format(Locale.US, "  %-18s %.4f%n", OBJECTIVES[i], display(e.objectives, i)));
+        }
+        return sb.toString();
+    }
+
+    /** Objective value as shown to the user (throughput is stored negated for minimisation). */
+    static double display(double[] obj, int i) {
+        return i == 9 ? -obj[i] : obj[i];
+    }
+
+    /** Downsampled snapshot ready to hand to JFreeChart; built off the EDT. */
+    private static final class Prepared {
+        final ParetoArchive archive;
+        final long version;                        // archive.version() at snapshot time
+        final int xi, yi, total, lineCount;
+        final List<ParetoArchive.Entry> entries;   // entries behind scatter[.][i]
+        final double[][] scatter;
+        final double[][] lines;
+
+        private Prepared(ParetoArchive archive, long version, int xi, int yi, int total,
+                         List<ParetoArchive.Entry> entries, double[][] scatter, double[][] lines, int lineCount) {
+            this.archive = archive; this.version = version;
+            this.xi = xi; this.yi = yi; this.total = total; this.entries = entries;
+            this.scatter = scatter; this.lines = lines; this.lineCount = lineCount;
+        }
+
+        static Prepared of(ParetoArchive archive, long version, List<ParetoArchive.Entry> all, int xi, int yi,
+                           int gx, int gy) {
+            int n = all.size();
+            double[] x = new double[n], y = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = display(all.get(i).objectives, xi);
+                y[i] = display(all.get(i).objectives, yi);
+            }
+            int[] keep = gridSample(x, y, gx, gy);
+
+            List<ParetoArchive.Entry> entries = new ArrayList<ParetoArchive.Entry>(keep.length);
+            double[][] scatter = new double[2][keep.length];
+            for (int k = 0; k < keep.length; k++) {
+                entries.add(all.get(keep[k]));
+                scatter[0][k] = x[keep[k]];
+                scatter[1][k] = y[keep[k]];
+            }
+
+            // Parallel coordinates over a stride of the kept points, normalised on the full archive.
+            int d = OBJECTIVES.length;
+            double[] lo = new double[d], hi = new double[d];
+            Arrays.fill(lo, Double.POSITIVE_INFINITY);
+            Arrays.fill(hi, Double.NEGATIVE_INFINITY);
+            for (ParetoArchive.Entry e : all) {
+                for (int j = 0; j < d; j++) {
+                    double v = display(e.objectives, j);
+                    if (v < lo[j]) lo[j] = v;
+                    if (v > hi[j]) hi[j] = v;
+                }
+            }
+            int lineCount = Math.min(MAX_LINES, keep.length);
+            double stride = lineCount == 0 ? 1.0 : (double) keep.length / lineCount;
+            double[][] lines = new double[2][lineCount * (d + 1)];
+            int p = 0;
+            for (int l = 0; l < lineCount; l++) {
+                double[] obj = all.get(keep[(int) (l * stride)]).objectives;
+                for (int j = 0; j < d; j++) {
+                    double span = hi[j] - lo[j];
+                    lines[0][p] = j;
+                    lines[1][p++] = span > 0 ? (display(obj, j) - lo[j]) / span : 0.5;
+                }
+                lines[0][p] = d - 1;        // NaN gap ends the polyline
+                lines[1][p++] = Double.NaN;
+            }
+            return new Prepared(archive, version, xi, yi, n, entries, scatter, lines, lineCount);
+        }
+
+        /** One point per cell of a gx x gy grid over the data bounds; O(n). */
+        /** One point per grid cell; the grid is coarsened until at most MAX_POINTS cells are occupied. */
+        static int[] gridSample(double[] x, double[] y, int gx, int gy) {
+            int n = x.length;
+            if (n <= KEEP_ALL) {
+                int[] all = new int[n];
+                for (int i = 0; i < n; i++) all[i] = i;
+                return all;
+            }
+            int[] out = gridPass(x, y, gx, gy);
+            while (out.length > MAX_POINTS && (gx > 1 || gy > 1)) {
+                gx = Math.max(1, gx * 3 / 4);
+                gy = Math.max(1, gy * 3 / 4);
+                out = gridPass(x, y, gx, gy);
+            }
+            return out;
+        }
+
+        private static int[] gridPass(double[] x, double[] y, int gx, int gy) {
+            int n = x.length;
+            double x0 = Double.POSITIVE_INFINITY, x1 = Double.NEGATIVE_INFINITY;
+            double y0 = Double.POSITIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                x0 = Math.min(x0, x[i]); x1 = Math.max(x1, x[i]);
+                y0 = Math.min(y0, y[i]); y1 = Math.max(y1, y[i]);
+            }
+            double sx = x1 > x0 ? (gx - 1) / (x1 - x0) : 0.0;
+            double sy = y1 > y0 ? (gy - 1) / (y1 - y0) : 0.0;
+            int[] cell = new int[gx * gy];
+            Arrays.fill(cell, -1);
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                int c = (int) ((x[i] - x0) * sx) * gy + (int) ((y[i] - y0) * sy);
+                if (cell[c] < 0) { cell[c] = i; kept++; }
+            }
+            int[] out = new int[kept];
+            int k = 0;
+            for (int c : cell) if (c >= 0) out[k++] = c;
+            return out;
+        }
+    }
+}
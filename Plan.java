@@ -4,11 +4,16 @@ package raj.cbm.core;
  * Minimal plan with safe defaults:
  * - Class A,B,C,D map to VM 0,1,2,3
  * - Per-VM CPU caps default to 1.0 (100%)
+ * - Per-VM host pins default to -1 (let the allocation policy decide)
  * You can change via setters or your optimizers.
  */
 public class Plan {
+    public static final int CLASS_COUNT = 4;
+    public static final int VM_COUNT = 4;
+
     private final double[] vmCap = new double[]{1.0, 1.0, 1.0, 1.0}; // cap in [0..1]
     private final int[] classVm = new int[]{0, 1, 2, 3};             // A→0, B→1, C→2, D→3
+    private final int[] vmHost = new int[]{-1, -1, -1, -1};          // host index per VM, -1 = auto
 
     public double getVmCap(int i) {
         if (i < 0 || i >= vmCap.length) return 1.0;
@@ -38,4 +43,53 @@ public class Plan {
         if (vm > 3) vm = 3;
         classVm[cls] = vm;
     }
+
+    /** Host index the VM is pinned to, or -1 when the allocation policy chooses. */
+    public int getVmHost(int i) {
+        if (i < 0 || i >= vmHost.length) return -1;
+        return Math.max(-1, vmHost[i]);
+    }
+    public void setVmHost(int i, int host) {
+        if (i < 0 || i >= vmHost.length) return;
+        vmHost[i] = host < 0 ? -1 : host; // upper bound depends on the scenario; the policy ignores bad pins
+    }
+
+    public Plan copy() {
+        Plan p = new Plan();
+        System.arraycopy(vmCap, 0, p.vmCap, 0, vmCap.length);
+        System.arraycopy(classVm, 0, p.classVm, 0, classVm.length);
+        System.arraycopy(vmHost, 0, p.vmHost, 0, vmHost.length);
+        return p;
+    }
+
+    /**
+     * Exact identity of caps + mapping (+ host pins if any), e.g.
+     * "0.85,0.7,0.45,0.35|0,1,2,3" (for caches/dedup). Caps use Double.toString,
+     * which round-trips, so two plans share a key only if their caps are bit-equal.
+     */
+    public String key() {
+        StringBuilder sb = new StringBuilder(48);
+        for (int i = 0; i < vmCap.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(Double.toString(getVmCap(i)));
+        }
+        sb.append('|');
+        for (int c = 0; c < classVm.length; c++) {
+            if (c > 0) sb.append(',');
+            sb.append(getClassVm(c));
+        }
+        boolean pinned = false;
+        for (int h : vmHost) if (h >= 0) pinned = true;
+        if (pinned) {
+            sb.append('|');
+            for (int i = 0; i < vmHost.length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(getVmHost(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() { return "Plan[" + key() + "]"; }
 }
@@ -18,6 +18,10 @@ import java.util.*;
  * - Uses PowerDatacenter + PowerHost + PowerModelLinear for energy.
  * - Applies per-VM CPU caps via a capped time-shared scheduler.
  * - Class→VM mapping (A,B,C,D -> VM 0..3) comes from Plan.
+ * - VM placement: CloudSim's simple policy, or energy-aware best-fit-decreasing
+ *   (ep.vmAllocation = "bfd") which also honours Plan host pins.
+ * - replayOnline: Plan caps are only the starting point; an OnlineController
+ *   re-plans them periodically during the run.
  */
 public final class SLAEvaluator {
 
@@ -32,15 +36,51 @@ public final class SLAEvaluator {
         public double avgResponseMs;
         public final double[] vmUtil = new double[4]; // avg CPU util [0..1] per VM
         public double[] hostUtil = new double[0];     // avg CPU util per Host
+        public int onlineDecisions;                   // replayOnline only
+        public double decisionP95Ms;                  // wall-clock decision latency
+        public double decisionMaxMs;
+
+        /** Number of entries in {@link #objectives()}. */
+        public static final int OBJECTIVES = 10;
+
+        /**
+         * Objective vector, all minimised:
+         * energy, p95 A..D, miss% A..D, -throughput.
+         */
+        public double[] objectives() {
+            double[] o = new double[OBJECTIVES];
+            o[0] = energyKWh;
+            for (int i = 0; i < 4; i++) o[1 + i] = p95ms[i];
+            for (int i = 0; i < 4; i++) o[5 + i] = missPct[i];
+            o[9] = -throughput;
+            return o;
+        }
     }
 
     private SLAEvaluator(){}
 
-    public static Metrics evaluate(final ExperimentParams ep, final Plan plan) {
+    /**
+     * Runs one simulation. CloudSim 3.0.3 keeps its simulation state in statics,
+     * so runs are serialized on this class (see IsolatedSimulator for parallel copies).
+     */
+    public static synchronized Metrics evaluate(final ExperimentParams ep, final Plan plan) {
+        return run(ep, plan, null);
+    }
+
+    /**
+     * Runs plan with an OnlineController re-planning the caps during the simulation;
+     * fills the decision-latency fields of Metrics and tags ep.onlineLogCsv rows with algo.
+     */
+    public static synchronized Metrics replayOnline(final ExperimentParams ep, final Plan plan, final String algo) {
+        return run(ep, plan, algo == null ? "" : algo);
+    }
+
+    /** onlineAlgo != null enables the online controller. */
+    private static Metrics run(final ExperimentParams ep, final Plan plan, final String onlineAlgo) {
         // 1) Init CloudSim
         CloudSim.init(1, Calendar.getInstance(), false);
 
-        PowerDatacenter dc = createPowerDatacenter("edge", ep);
+        PowerDatacenter dc = createPowerDatacenter("edge", ep, plan);
         DatacenterBroker broker = createBroker();
         int brokerId = broker.getId();
 
@@ -76,7 +116,10 @@ for (int i = 0; i < 4; i++) {
 
 
 
-        broker.submitVmList(vmList);
+        // Largest VMs first so best-fit placement becomes best-fit-decreasing.
+        List<Vm> submitOrder = new ArrayList<Vm>(vmList);
+        submitOrder.sort((a, b) -> Double.compare(b.getMips() * b.getNumberOfPes(), a.getMips() * a.getNumberOfPes()));
+        broker.submitVmList(submitOrder);
 
         // 3) Cloudlets for A/B/C/D, then pin to VM using Plan mapping
         List<Cloudlet> cloudlets = new ArrayList<Cloudlet>();
@@ -103,6 +146,11 @@ for (int i = 0; i < 4; i++) {
         }
         broker.submitCloudletList(cloudlets);
 
+        OnlineController controller = onlineAlgo != null
+                ? new OnlineController(ep, dc.getId(), broker, vmList, cloudlets.size(), onlineAlgo,
+                                       plan != null ? plan.key() : new Plan().key())
+                : null;
+
         // 4) Run simulation
         CloudSim.startSimulation();
         @SuppressWarnings("unchecked")
@@ -188,25 +236,12 @@ for (int i = 0; i < 4; i++) {
         double wattSeconds = dc.getPower();
         m.energyKWh = wattSeconds / 3_600_000.0; // Ws -> kWh
 
-        return m;
-    }
+        if (controller != null) controller.fill(m);
 
-    /** Simple capped scheduler: scales MIPS shares by cap in [0..1]. */
-    private static final class CloudletSchedulerCapped extends CloudletSchedulerTimeShared {
-        private final double cap;
-        CloudletSchedulerCapped(double cap) { this.cap = clamp01(cap); }
-        @Override
-        public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
-            if (mipsShare != null && !mipsShare.isEmpty()) {
-                List<Double> scaled = new ArrayList<Double>(mipsShare.size());
-                for (Double m : mipsShare) scaled.add((m == null ? 0.0 : m) * cap);
-                return super.updateVmProcessing(currentTime, scaled);
-            }
-            return super.updateVmProcessing(currentTime, mipsShare);
-        }
+        return m;
     }
 
-    private static PowerDatacenter createPowerDatacenter(String name, ExperimentParams ep) {
+    private static PowerDatacenter createPowerDatacenter(String name, ExperimentParams ep, Plan plan) {
         List<PowerHost> hostList = new ArrayList<PowerHost>();
 
         int hostCount = ep.hostCount > 0 ? ep.hostCount : 2;
@@ -243,7 +278,7 @@ for (int i = 0; i < 4; i++) {
         return new PowerDatacenter(
             name,
             ch,
-            new VmAllocationPolicySimple(new ArrayList<Host>(hostList)),
+            createAllocationPolicy(ep, plan, hostList),
             new LinkedList<Storage>(),
             interval
         );
@@ -253,6 +288,15 @@ for (int i = 0; i < 4; i++) {
 }
     
 
+    private static VmAllocationPolicy createAllocationPolicy(ExperimentParams ep, Plan plan, List<PowerHost> hostList) {
+        if (ExperimentParams.VM_ALLOC_BFD.equals(ep.vmAllocation)) {
+            int[] pins = new int[Plan.VM_COUNT];
+            for (int i = 0; i < pins.length; i++) pins[i] = plan != null ? plan.getVmHost(i) : -1;
+            return new EnergyAwareVmAllocationPolicy(hostList, pins);
+        }
+        return new VmAllocationPolicySimple(new ArrayList<Host>(hostList));
+    }
+
     private static DatacenterBroker createBroker() {
         try { return new DatacenterBroker("broker"); }
         catch (Exception e) { throw new RuntimeException(e); }
@@ -270,14 +314,14 @@ for (int i = 0; i < 4; i++) {
         return list;
     }
 
-    private static int classIndexById(int cloudletId) {
+    static int classIndexById(int cloudletId) {
         if (cloudletId >= 3000) return 3; // D
         if (cloudletId >= 2000) return 2; // C
         if (cloudletId >= 1000) return 1; // B
         return 0;                         // A
     }
 
-    private static double percentile(List<Double> data, double p) {
+    static double percentile(List<Double> data, double p) {
         if (data == null || data.isEmpty()) return 0.0;
         List<Double> v = new ArrayList<Double>(data);
         Collections.sort(v);
@@ -289,12 +333,11 @@ for (int i = 0; i < 4; i++) {
         return v.get(lo) * (1.0 - w) + v.get(hi) * w;
     }
 
-    private static double missPct(List<Double> data, double thrMs) {
+    static double missPct(List<Double> data, double thrMs) {
         if (data == null || data.isEmpty()) return 0.0;
         int miss = 0; for (double x : data) if (x > thrMs) miss++;
         return 100.0 * miss / data.size();
     }
 
-    private static double clamp01(double x) { return x < 0 ? 0 : (x > 1 ? 1 : x); }
     private static int within03(int x) { if (x < 0) return 0; if (x > 3) return 3; return x; }
 }
@@ -2,25 +2,290 @@ package raj.cbm.spea;
 
 import raj.cbm.core.ExperimentParams;
 import raj.cbm.core.Plan;
+import raj.cbm.eval.ConvergenceMonitor;
+import raj.cbm.eval.Pareto;
+import raj.cbm.eval.ParetoArchive;
 import raj.cbm.eval.SLAEvaluator;
+import raj.cbm.opt.Evaluator;
+import raj.cbm.opt.Optimizer;
+import raj.cbm.opt.OptimizerResult;
 
-/** Minimal scaffold for SPEA-II. */
-public class SPEA2Optimizer {
-    public static class Result {
-        public final SLAEvaluator.Metrics metrics; public final Plan plan;
-        public Result(SLAEvaluator.Metrics m, Plan p) { metrics = m; plan = p; }
-    }
-
-    public Result run(ExperimentParams ep) {
-        Plan plan = new Plan();
-        plan.setVmCap(0, 0.70);
-        plan.setVmCap(1, 0.70);
-        plan.setVmCap(2, 0.40);
-        plan.setVmCap(3, 0.40);
-        // Swap D and C placement
-        plan.setClassVm(2, 3); // C -> VM3
-        plan.setClassVm(3, 2); // D -> VM2
-        SLAEvaluator.Metrics m = SLAEvaluator.evaluate(ep, plan);
-        return new Result(m, plan);
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+/**
+ * SPEA-II (Zitzler, Laumanns, Thiele 2001) over per-VM caps, class→VM mapping and,
+ * with ep.searchPlacement under the "bfd" policy, per-VM host pins.
+ *
+ * Fitness works on primitive objective arrays: strength S, raw fitness R and
+ * density D = 1 / (sigma_k + 2), where sigma_k is the distance to the k-th nearest
+ * neighbour (k = sqrt(population + archive)) in min-max normalised objective space.
+ * kNN queries go through a {@link KdTree} instead of an all-pairs distance matrix.
+ * Archive truncation removes the member with the lexicographically smallest
+ * neighbour-distance list; only members that had the removed point as a neighbour
+ * are re-queried, so truncation stays near O(N log N) instead of O(N^2 log N).
+ */
+public class SPEA2Optimizer implements Optimizer {
+
+    private static final double CAP_MIN = 0.10, CAP_SIGMA = 0.10, CROSSOVER = 0.9;
+
+    @Override
+    public String name() { return "SPEA-II"; }
+
+    @Override
+    public OptimizerResult run(ExperimentParams ep, Evaluator ev, ParetoArchive front) {
+        long t0 = System.nanoTime();
+        final int popSize = Math.max(2, ep.spea2Population);
+        final int archSize = Math.max(1, ep.spea2ArchiveSize);
+        // Pins only matter to the bfd policy; VmAllocationPolicySimple ignores them.
+        final boolean pins = ep.searchPlacement && ExperimentParams.VM_ALLOC_BFD.equals(ep.vmAllocation);
+        final int hosts = pins ? (ep.hostCount > 0 ? ep.hostCount : 2) : 0;
+        SplittableRandom rnd = new SplittableRandom(ep.seed + 3);
+        ConvergenceMonitor monitor = ConvergenceMonitor.forParams(name(), ep);
+
+        Plan[] pop = new Plan[popSize];
+        pop[0] = new Plan(); // default plan as a known-feasible seed
+        for (int i = 1; i < popSize; i++) pop[i] = randomPlan(rnd, hosts);
+
+        Plan[] arch = new Plan[0];
+        double[][] archObj = new double[0][];
+
+        for (int gen = 0; ; gen++) {
+            double[][] popObj = evaluate(ev, pop, front);
+
+            // Union of population and archive as parallel arrays.
+            int m = pop.length + arch.length;
+            Plan[] u = new Plan[m];
+            double[][] obj = new double[m][];
+            System.arraycopy(pop, 0, u, 0, pop.length);
+            System.arraycopy(arch, 0, u, pop.length, arch.length);
+            System.arraycopy(popObj, 0, obj, 0, pop.length);
+            System.arraycopy(archObj, 0, obj, pop.length, arch.length);
+
+            double[][] norm = normalise(obj);
+            int k = Math.max(1, Math.min(m - 1, (int) Math.sqrt(m)));
+            double[] fit = fitness(obj, norm, k);
+            int[] keep = environmentalSelection(norm, fit, archSize, k);
+
+            arch = new Plan[keep.length];
+            archObj = new double[keep.length][];
+            double[] archFit = new double[keep.length];
+            for (int i = 0; i < keep.length; i++) {
+                arch[i] = u[keep[i]];
+                archObj[i] = obj[keep[i]];
+                archFit[i] = fit[keep[i]];
+            }
+
+            if (monitor.record(gen, front.objectives(), ev.evaluations()) || ev.exhausted()) break;
+
+            pop = variation(arch, archFit, popSize, hosts, rnd);
+        }
+
+        return OptimizerResult.of(name(), front, ev, t0);
+    }
+
+    // ---- fitness ----
+
+    /** F = R + D on primitive arrays. */
+    static double[] fitness(double[][] obj, double[][] norm, int k) {
+        int m = obj.length;
+        int[] strength = new int[m];
+        for (int i = 0; i < m; i++)
+            for (int j = 0; j < m; j++)
+                if (i != j && Pareto.dominates(obj[i], obj[j])) strength[i]++;
+
+        double[] fit = new double[m];
+        for (int i = 0; i < m; i++)
+            for (int j = 0; j < m; j++)
+                if (i != j && Pareto.dominates(obj[j], obj[i])) fit[i] += strength[j];
+
+        if (m > 1) {
+            KdTree tree = new KdTree(norm);
+            int[] idx = new int[k];
+            double[] dist = new double[k];
+            for (int i = 0; i < m; i++) {
+                int n = tree.knn(i, k, idx, dist);
+                double sigma = n > 0 ? dist[n - 1] : 0.0;
+                fit[i] += 1.0 / (sigma + 2.0);
+            }
+        } else if (m == 1) {
+            fit[0] += 0.5;
+        }
+        return fit;
+    }
+
+    /** Indices of the next archive: all non-dominated (F < 1), filled or truncated to size. */
+    static int[] environmentalSelection(double[][] norm, double[] fit, int size, int k) {
+        int m = fit.length;
+        int nd = 0;
+        for (double f : fit) if (f < 1.0) nd++;
+
+        if (nd <= size) {
+            // Non-dominated members have F < 1, so sorting by F keeps them all and fills with the best rest.
+            Integer[] order = new Integer[m];
+            for (int i = 0; i < m; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparingDouble(i -> fit[i]));
+            int n = Math.min(size, m);
+            int[] out = new int[n];
+            for (int i = 0; i < n; i++) out[i] = order[i];
+            return out;
+        }
+
+        int[] members = new int[nd];
+        for (int i = 0, j = 0; i < m; i++) if (fit[i] < 1.0) members[j++] = i;
+        double[][] sub = new double[nd][];
+        for (int i = 0; i < nd; i++) sub[i] = norm[members[i]];
+        int[] kept = truncate(sub, size, k);
+        int[] out = new int[kept.length];
+        for (int i = 0; i < kept.length; i++) out[i] = members[kept[i]];
+        return out;
+    }
+
+    /**
+     * Iteratively removes the point whose sorted neighbour distances are lexicographically
+     * smallest until size remain. Neighbour lists are limited to k entries and only refreshed
+     * for points that had the removed one as a neighbour (tracked via reverse lists).
+     */
+    static int[] truncate(double[][] pts, int size, int k) {
+        final int n = pts.length;
+        final int kk = Math.max(1, Math.min(k, n - 1));
+        final KdTree tree = new KdTree(pts);
+        final int[][] nbr = new int[n][kk];
+        final double[][] dist = new double[n][kk];
+        final int[] len = new int[n];
+        final int[][] rev = new int[n][];
+        final int[] revN = new int[n];
+        for (int i = 0; i < n; i++) rev[i] = new int[kk];
+
+        Comparator<Integer> lex = (a, b) -> {
+            int l = Math.min(len[a], len[b]);
+            for (int j = 0; j < l; j++) {
+                int c = Double.compare(dist[a][j], dist[b][j]);
+                if (c != 0) return c;
+            }
+            if (len[a] != len[b]) return Integer.compare(len[a], len[b]);
+            return Integer.compare(a, b);
+        };
+        TreeSet<Integer> order = new TreeSet<Integer>(lex);
+
+        for (int i = 0; i < n; i++) {
+            len[i] = tree.knn(i, kk, nbr[i], dist[i]);
+            for (int j = 0; j < len[i]; j++) addRev(rev, revN, nbr[i][j], i);
+            order.add(i);
+        }
+
+        int alive = n;
+        while (alive > size) {
+            int r = order.pollFirst();
+            tree.remove(r);
+            alive--;
+            // Entries in rev[r] may be stale (i re-queried since); check before refreshing.
+            for (int t = 0; t < revN[r]; t++) {
+                int i = rev[r][t];
+                if (tree.isRemoved(i) || !contains(nbr[i], len[i], r)) continue;
+                order.remove(i);
+                len[i] = tree.knn(i, kk, nbr[i], dist[i]);
+                for (int j = 0; j < len[i]; j++) addRev(rev, revN, nbr[i][j], i);
+                order.add(i);
+            }
+            revN[r] = 0;
+        }
+
+        int[] out = new int[alive];
+        int j = 0;
+        for (int i = 0; i < n; i++) if (!tree.isRemoved(i)) out[j++] = i;
+        return out;
+    }
+
+    private static void addRev(int[][] rev, int[] revN, int of, int who) {
+        if (revN[of] == rev[of].length) rev[of] = Arrays.copyOf(rev[of], rev[of].length * 2);
+        rev[of][revN[of]++] = who;
+    }
+
+    private static boolean contains(int[] a, int n, int x) {
+        for (int i = 0; i < n; i++) if (a[i] == x) return true;
+        return false;
+    }
+
+    private static double[][] normalise(double[][] obj) {
+        int m = obj.length;
+        if (m == 0) return obj;
+        int d = obj[0].length;
+        double[] lo = new double[d], span = new double[d];
+        for (int j = 0; j < d; j++) {
+            double mn = Double.POSITIVE_INFINITY, mx = Double.NEGATIVE_INFINITY;
+            for (double[] o : obj) { mn = Math.min(mn, o[j]); mx = Math.max(mx, o[j]); }
+            lo[j] = mn;
+            span[j] = mx > mn ? mx - mn : 1.0;
+        }
+        double[][] out = new double[m][d];
+        for (int i = 0; i < m; i++)
+            for (int j = 0; j < d; j++) out[i][j] = (obj[i][j] - lo[j]) / span[j];
+        return out;
+    }
+
+    // ---- evaluation & variation ----
+
+    private static double[][] evaluate(Evaluator ev, Plan[] pop, ParetoArchive front) {
+        List<SLAEvaluator.Metrics> ms = ev.evaluateAll(Arrays.asList(pop));
+        double[][] obj = new double[pop.length][];
+        for (int i = 0; i < pop.length; i++) {
+            obj[i] = ms.get(i).objectives();
+            front.add(pop[i], ms.get(i));
+        }
+        return obj;
+    }
+
+    /** hosts > 0 adds the per-VM host pin (-1 = auto) as a gene. */
+    private static Plan[] variation(Plan[] arch, double[] fit, int n, int hosts, SplittableRandom rnd) {
+        Plan[] out = new Plan[n];
+        int genes = Plan.CLASS_COUNT + Plan.VM_COUNT + (hosts > 0 ? Plan.VM_COUNT : 0);
+        double pm = 1.0 / genes;
+        for (int c = 0; c < n; c++) {
+            Plan a = tournament(arch, fit, rnd), b = tournament(arch, fit, rnd);
+            Plan child = a.copy();
+            if (rnd.nextDouble() < CROSSOVER) {
+                for (int v = 0; v < Plan.VM_COUNT; v++) {
+                    double w = rnd.nextDouble();
+                    child.setVmCap(v, w * a.getVmCap(v) + (1 - w) * b.getVmCap(v));
+                }
+                for (int k = 0; k < Plan.CLASS_COUNT; k++) {
+                    if (rnd.nextBoolean()) child.setClassVm(k, b.getClassVm(k));
+                }
+                for (int v = 0; v < Plan.VM_COUNT && hosts > 0; v++) {
+                    if (rnd.nextBoolean()) child.setVmHost(v, b.getVmHost(v));
+                }
+            }
+            for (int v = 0; v < Plan.VM_COUNT; v++) {
+                if (rnd.nextDouble() < pm) {
+                    double cap = child.getVmCap(v) + CAP_SIGMA * rnd.nextGaussian();
+                    child.setVmCap(v, Math.max(CAP_MIN, Math.min(1.0, cap)));
+                }
+            }
+            for (int k = 0; k < Plan.CLASS_COUNT; k++) {
+                if (rnd.nextDouble() < pm) child.setClassVm(k, rnd.nextInt(Plan.VM_COUNT));
+            }
+            for (int v = 0; v < Plan.VM_COUNT && hosts > 0; v++) {
+                if (rnd.nextDouble() < pm) child.setVmHost(v, rnd.nextInt(hosts + 1) - 1);
+            }
+            out[c] = child;
+        }
+        return out;
+    }
+
+    private static Plan tournament(Plan[] arch, double[] fit, SplittableRandom rnd) {
+        int i = rnd.nextInt(arch.length), j = rnd.nextInt(arch.length);
+        return fit[i] <= fit[j] ? arch[i] : arch[j];
+    }
+
+    private static Plan randomPlan(SplittableRandom rnd, int hosts) {
+        Plan p = new Plan();
+        for (int v = 0; v < Plan.VM_COUNT; v++) p.setVmCap(v, CAP_MIN + (1.0 - CAP_MIN) * rnd.nextDouble());
+        for (int k = 0; k < Plan.CLASS_COUNT; k++) p.setClassVm(k, rnd.nextInt(Plan.VM_COUNT));
+        for (int v = 0; v < Plan.VM_COUNT && hosts > 0; v++) p.setVmHost(v, rnd.nextInt(hosts + 1) - 1);
+        return p;
     }
 }
@@ -2,18 +2,22 @@ package raj.cbm.pso;
 
 import raj.cbm.core.ExperimentParams;
 import raj.cbm.core.Plan;
-import raj.cbm.eval.SLAEvaluator;
+import raj.cbm.eval.ParetoArchive;
+import raj.cbm.opt.Evaluator;
+import raj.cbm.opt.Optimizer;
+import raj.cbm.opt.OptimizerResult;
 
 import java.util.Random;
 
 /** Minimal scaffold for standard PSO. */
-public class StandardPSOOptimizer {
-    public static class Result {
-        public final SLAEvaluator.Metrics metrics; public final Plan plan;
-        public Result(SLAEvaluator.Metrics m, Plan p) { metrics = m; plan = p; }
-    }
+public class StandardPSOOptimizer implements Optimizer {
+
+    @Override
+    public String name() { return "StandardPSO"; }
 
-    public Result run(ExperimentParams ep) {
+    @Override
+    public OptimizerResult run(ExperimentParams ep, Evaluator ev, ParetoArchive archive) {
+        long t0 = System.nanoTime();
         Random rnd = new Random(ep.seed + 1);
         Plan plan = new Plan();
         plan.setVmCap(0, 0.75);
@@ -23,7 +27,7 @@ public class StandardPSOOptimizer {
         // Slight remap: put C on VM1, B on VM2
         plan.setClassVm(1, 2); // B -> VM2
         plan.setClassVm(2, 1); // C -> VM1
-        SLAEvaluator.Metrics m = SLAEvaluator.evaluate(ep, plan);
-        return new Result(m, plan);
+        archive.add(plan, ev.evaluate(plan));
+        return OptimizerResult.of(name(), archive, ev, t0);
     }
 }
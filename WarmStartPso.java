@@ -0,0 +1,87 @@
+package raj.cbm.pso;
+
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Small continuous PSO for online re-planning: minimises f over [lo, hi]^d until a
+ * wall-clock deadline. Particle 0 is the warm start (the plan currently in force) and
+ * the rest are scattered around it, so the answer is never worse than keeping the
+ * current plan, and the first iterations search the neighbourhood of the last decision.
+ * Stops at the wall-clock deadline (checked before every objective call), after
+ * maxIterations swarm updates, or once the global best has not improved for
+ * STALL_ITERATIONS updates in a row, whichever comes first.
+ */
+public final class WarmStartPso {
+    private WarmStartPso(){}
+
+    private static final double INERTIA = 0.72, C1 = 1.49, C2 = 1.49;
+    private static final double LOCAL_SIGMA = 0.15; // start spread around the warm start, fraction of range
+    private static final int STALL_ITERATIONS = 5;
+    private static final double MIN_GAIN = 1e-9;    // relative improvement that resets the stall count
+
+    public static final class Outcome {
+        public final double[] best;
+        public final double value;
+        public final int evaluations;
+        public final int iterations;   // swarm updates after the initial evaluation
+        Outcome(double[] best, double value, int evaluations, int iterations) {
+            this.best = best; this.value = value; this.evaluations = evaluations; this.iterations = iterations;
+        }
+    }
+
+    public static Outcome minimise(ToDoubleFunction<double[]> f, double[] warm, double lo, double hi,
+                                   int particles, int maxIterations, long deadlineNanos, SplittableRandom rnd) {
+        int d = warm.length, n = Math.max(2, particles);
+        double range = hi - lo;
+        double[][] x = new double[n][d], v = new double[n][d], pb = new double[n][];
+        double[] pbv = new double[n];
+
+        double[] g = clip(warm.clone(), lo, hi);
+        double gv = f.applyAsDouble(g);
+        int evals = 1;
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+                double base = i == 0 ? g[j]
+                        : (i % 4 == 3 ? lo + range * rnd.nextDouble()   // every 4th: global sample
+                                      : g[j] + LOCAL_SIGMA * range * rnd.nextGaussian());
+                x[i][j] = base;
+                v[i][j] = 0.0;
+            }
+            clip(x[i], lo, hi);
+            pb[i] = x[i].clone();
+            pbv[i] = i == 0 ? gv : Double.POSITIVE_INFINITY;
+        }
+
+        // Evaluate the initial swarm, then iterate; any particle not reached keeps +inf.
+        int iter = 0, stall = 0;
+        outer:
+        for (; iter <= Math.max(0, maxIterations) && stall < STALL_ITERATIONS; iter++) {
+            double before = gv;
+            for (int i = (iter == 0 ? 1 : 0); i < n; i++) {
+                if (System.nanoTime() >= deadlineNanos) break outer;
+                if (iter > 0) {
+                    for (int j = 0; j < d; j++) {
+                        v[i][j] = INERTIA * v[i][j]
+                                + C1 * rnd.nextDouble() * (pb[i][j] - x[i][j])
+                                + C2 * rnd.nextDouble() * (g[j] - x[i][j]);
+                        x[i][j] += v[i][j];
+                    }
+                    clip(x[i], lo, hi);
+                }
+                double fx = f.applyAsDouble(x[i]);
+                evals++;
+                if (fx < pbv[i]) { pbv[i] = fx; pb[i] = x[i].clone(); }
+                if (fx < gv) { gv = fx; g = x[i].clone(); }
+            }
+            if (iter > 0) stall = before - gv > MIN_GAIN * Math.max(Math.abs(before), 1.0) ? 0 : stall + 1;
+        }
+        return new Outcome(g, gv, evals, Math.max(0, iter - 1));
+    }
+
+    private static double[] clip(double[] a, double lo, double hi) {
+        for (int j = 0; j < a.length; j++) a[j] = a[j] < lo ? lo : (a[j] > hi ? hi : a[j]);
+        return a;
+    }
+}